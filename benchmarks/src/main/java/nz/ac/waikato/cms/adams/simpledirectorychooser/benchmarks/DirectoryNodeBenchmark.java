@@ -0,0 +1,116 @@
+/*
+ * DirectoryNodeBenchmark.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.benchmarks;
+
+import nz.ac.waikato.cms.adams.simpledirectorychooser.scan.CachingDirectoryScanner;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.scan.DirectoryListingCache;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.scan.DirectoryScanner;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.scan.FileDirectoryScanner;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.scan.NioDirectoryScanner;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.tree.DirectoryNode;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.tree.DirectoryTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures listing and populating the children of a directory node.
+ * As the synthetic directories don't change, the "cached" scanner only
+ * measures hits of its (private) listing cache, whereas the "file" and
+ * "nio" scanners list the directory each time.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class DirectoryNodeBenchmark {
+
+  /** the number of sub-directories. */
+  @Param({"1000", "10000"})
+  public int width;
+
+  /** whether to show hidden directories. */
+  @Param({"false", "true"})
+  public boolean showHidden;
+
+  /** the scanner to use. */
+  @Param({"file", "nio", "cached"})
+  public String scanner;
+
+  /** the synthetic directories. */
+  protected SyntheticTree m_Synthetic;
+
+  /** the tree. */
+  protected DirectoryTree m_Tree;
+
+  /** the node for the wide directory. */
+  protected DirectoryNode m_Wide;
+
+  /** the node for the mixed directory. */
+  protected DirectoryNode m_Mixed;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    final DirectoryScanner	dirScanner;
+
+    switch (scanner) {
+      case "file":
+	dirScanner = new FileDirectoryScanner();
+	break;
+      case "nio":
+	dirScanner = new NioDirectoryScanner();
+	break;
+      case "cached":
+	dirScanner = new CachingDirectoryScanner(new FileDirectoryScanner(), new DirectoryListingCache());
+	break;
+      default:
+	throw new IllegalStateException("Unknown scanner: " + scanner);
+    }
+
+    m_Synthetic = new SyntheticTree(width, 10);
+    SyntheticTree.runOnEDT(() -> {
+      m_Tree = new DirectoryTree(showHidden);
+      m_Tree.setScanner(dirScanner);
+      m_Wide  = m_Tree.expandDirectory(m_Synthetic.getWide());
+      m_Mixed = m_Tree.expandDirectory(m_Synthetic.getMixed());
+    });
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    m_Synthetic.delete();
+  }
+
+  @Benchmark
+  public int expandWide() {
+    m_Wide.reset();
+    m_Wide.expandIfNecessary(false);
+    return m_Wide.getChildCount();
+  }
+
+  @Benchmark
+  public int expandMixed() {
+    m_Mixed.reset();
+    m_Mixed.expandIfNecessary(false);
+    return m_Mixed.getChildCount();
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * DirectoryNodeFootprint.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.benchmarks;
+
+import nz.ac.waikato.cms.adams.simpledirectorychooser.scan.AbstractDirectoryScanner;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.scan.DirectoryScanListener;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.tree.DirectoryNode;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.tree.DirectoryTree;
+
+import javax.swing.SwingUtilities;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Measures the retained heap per directory node, by loading a directory
+ * with many (fabricated) sub-directories. No file system access is
+ * involved, the scanner generates the sub-directories.
+ * <br>
+ * Usage: DirectoryNodeFootprint [number of sub-directories (default: 200000)]
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class DirectoryNodeFootprint {
+
+  /**
+   * Scanner that generates the specified number of sub-directories.
+   */
+  public static class FabricatingScanner
+    extends AbstractDirectoryScanner {
+
+    /** the number of sub-directories to generate. */
+    protected int m_Count;
+
+    /**
+     * Initializes the scanner.
+     *
+     * @param count	the number of sub-directories to generate
+     */
+    public FabricatingScanner(int count) {
+      m_Count = count;
+    }
+
+    /**
+     * Generates the sub-directories.
+     *
+     * @param dir		the directory to "scan"
+     * @param showHidden	ignored
+     * @param listener		the listener to notify
+     */
+    @Override
+    public void scan(File dir, boolean showHidden, DirectoryScanListener listener) {
+      int	i;
+
+      for (i = 0; i < m_Count; i++) {
+	if (!listener.directoryFound(new File(dir, "directory-" + i)))
+	  break;
+      }
+    }
+  }
+
+  /**
+   * Returns the used heap after garbage collection.
+   *
+   * @return		the used heap in bytes
+   * @throws Exception	if interrupted
+   */
+  protected static long usedHeap() throws Exception {
+    MemoryMXBean	bean;
+    int			i;
+
+    bean = ManagementFactory.getMemoryMXBean();
+    for (i = 0; i < 5; i++) {
+      System.gc();
+      Thread.sleep(100);
+    }
+
+    return bean.getHeapMemoryUsage().getUsed();
+  }
+
+  public static void main(String[] args) throws Exception {
+    int			count;
+    DirectoryTree	tree;
+    DirectoryNode	node;
+    long		before;
+    long		after;
+
+    count = (args.length > 0) ? Integer.parseInt(args[0]) : 200000;
+    tree  = new DirectoryTree();
+    // let the initial build of the tree finish before swapping the scanner
+    SwingUtilities.invokeAndWait(() -> {});
+    tree.setScanner(new FabricatingScanner(count));
+
+    before = usedHeap();
+    node   = new DirectoryNode(tree, new File(System.getProperty("java.io.tmpdir"), "synthetic/parent/directory"), false);
+    node.loadIfNecessary();
+    after  = usedHeap();
+
+    System.out.println("nodes:          " + node.getChildCount());
+    System.out.println("retained bytes: " + (after - before));
+    System.out.println("bytes per node: " + (after - before) / node.getChildCount());
+  }
+}
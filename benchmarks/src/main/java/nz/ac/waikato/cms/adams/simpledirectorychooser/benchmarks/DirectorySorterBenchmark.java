@@ -0,0 +1,120 @@
+/*
+ * DirectorySorterBenchmark.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.benchmarks;
+
+import nz.ac.waikato.cms.adams.simpledirectorychooser.sort.CaseInsensitiveDirectorySorter;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.sort.CaseSensitiveDirectorySorter;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.sort.CollatedDirectorySorter;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.sort.DirectorySorter;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.sort.NaturalDirectorySorter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorts the (shuffled) sub-directories of a large directory with the
+ * available sorters and the comparator that lower cased the names for
+ * every comparison. The names are generated in memory, mixing case,
+ * numbers and accented characters.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DirectorySorterBenchmark {
+
+  /** the syllables to build the names from. */
+  protected final static String[] SYLLABLES = {"data", "Img", "run", "Test", "ö", "é", "set", "_", "-", "v"};
+
+  /** the number of directories. */
+  @Param({"100000"})
+  public int size;
+
+  /** the sorter to use. */
+  @Param({"toLowerCase", "caseInsensitive", "caseSensitive", "natural", "collated"})
+  public String sorter;
+
+  /** the shuffled directories. */
+  protected List<File> m_Dirs;
+
+  /** the sorter, null for the lower case comparator. */
+  protected DirectorySorter m_Sorter;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random		rnd;
+    File		parent;
+    StringBuilder	name;
+    int			i;
+    int			n;
+
+    rnd    = new Random(42);
+    parent = new File("/tmp/benchmark");
+    m_Dirs = new ArrayList<>();
+    for (i = 0; i < size; i++) {
+      name = new StringBuilder();
+      for (n = 0; n < 2 + rnd.nextInt(3); n++)
+	name.append(SYLLABLES[rnd.nextInt(SYLLABLES.length)]);
+      name.append(rnd.nextInt(size));
+      m_Dirs.add(new File(parent, name.toString()));
+    }
+    Collections.shuffle(m_Dirs, rnd);
+
+    switch (sorter) {
+      case "toLowerCase":
+	m_Sorter = null;
+	break;
+      case "caseInsensitive":
+	m_Sorter = new CaseInsensitiveDirectorySorter();
+	break;
+      case "caseSensitive":
+	m_Sorter = new CaseSensitiveDirectorySorter();
+	break;
+      case "natural":
+	m_Sorter = new NaturalDirectorySorter();
+	break;
+      case "collated":
+	m_Sorter = new CollatedDirectorySorter(Locale.ENGLISH);
+	break;
+      default:
+	throw new IllegalStateException("Unknown sorter: " + sorter);
+    }
+  }
+
+  @Benchmark
+  public List<File> sort() {
+    List<File>	result;
+
+    result = new ArrayList<>(m_Dirs);
+    if (m_Sorter == null)
+      result.sort((File o1, File o2) -> o1.getName().toLowerCase().compareTo(o2.getName().toLowerCase()));
+    else
+      m_Sorter.sort(result);
+
+    return result;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * DirectoryTreeBenchmark.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.benchmarks;
+
+import nz.ac.waikato.cms.adams.simpledirectorychooser.tree.DirectoryNode;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.tree.DirectoryTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the path resolution, selection and refresh operations of the tree.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class DirectoryTreeBenchmark {
+
+  /** the number of sub-directories. */
+  @Param({"1000", "10000"})
+  public int width;
+
+  /** the nesting depth. */
+  @Param({"20"})
+  public int depth;
+
+  /** the number of directories to select. */
+  @Param({"500"})
+  public int selected;
+
+  /** the synthetic directories. */
+  protected SyntheticTree m_Synthetic;
+
+  /** the tree with loaded directories. */
+  protected DirectoryTree m_Tree;
+
+  /** the tree for the selection benchmarks. */
+  protected DirectoryTree m_SelectionTree;
+
+  /** the directories to select. */
+  protected File[] m_Selection;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    m_Synthetic = new SyntheticTree(width, depth);
+    m_Selection = m_Synthetic.getWideChildren(selected);
+    SyntheticTree.runOnEDT(() -> {
+      m_Tree = new DirectoryTree();
+      m_Tree.expandDirectory(m_Synthetic.getWide());
+      m_Tree.setCurrentDirectory(m_Synthetic.getDeepLeaf());
+
+      m_SelectionTree = new DirectoryTree();
+      m_SelectionTree.setMultiSelectionEnabled(true);
+      m_SelectionTree.setSortSelectedDirectories(true);
+      m_SelectionTree.setSelectedDirectories(m_Selection);
+    });
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    m_Synthetic.delete();
+  }
+
+  @Benchmark
+  public DirectoryNode expandDirectoryLoaded() {
+    return m_Tree.expandDirectory(m_Synthetic.getDeepLeaf());
+  }
+
+  @Benchmark
+  public DirectoryNode expandDirectoryInWide() {
+    return m_Tree.expandDirectory(new File(m_Synthetic.getWide(), "dir" + (width - 1)));
+  }
+
+  @Benchmark
+  public void refresh() {
+    m_Tree.refresh();
+  }
+
+  @Benchmark
+  public void setSelectedDirectories() {
+    m_SelectionTree.clearSelection();
+    m_SelectionTree.setSelectedDirectories(m_Selection);
+  }
+
+  @Benchmark
+  public File[] getSelectedDirectoriesSorted() {
+    return m_SelectionTree.getSelectedDirectories();
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * IconManagerBenchmark.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.benchmarks;
+
+import nz.ac.waikato.cms.adams.simpledirectorychooser.icons.IconManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.Icon;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the icon lookups performed when painting rows.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class IconManagerBenchmark {
+
+  /** the icon set to use. */
+  @Param({"default", "boxicons_regular", "primo"})
+  public String set;
+
+  /** the manager. */
+  protected IconManager m_Manager;
+
+  /** the directory to get the system icon for. */
+  protected File m_Dir;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    m_Manager = new IconManager();
+    m_Manager.setActiveSet(set);
+    m_Dir = new File(System.getProperty("java.io.tmpdir"));
+    m_Manager.getSystemIcon(m_Dir);
+  }
+
+  @Benchmark
+  public Icon openIcon() {
+    return m_Manager.getOpenIcon();
+  }
+
+  @Benchmark
+  public Icon closedIcon() {
+    return m_Manager.getClosedIcon();
+  }
+
+  @Benchmark
+  public Icon homeIcon() {
+    return m_Manager.getHomeIcon();
+  }
+
+  @Benchmark
+  public int iconSize() {
+    return m_Manager.getIconSize();
+  }
+
+  @Benchmark
+  public Icon systemIconCached() {
+    return m_Manager.getSystemIcon(m_Dir);
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * IconScalingBenchmark.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.benchmarks;
+
+import nz.ac.waikato.cms.adams.simpledirectorychooser.core.GUIHelper;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.icons.IconManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.swing.ImageIcon;
+import java.awt.Image;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the scaling of the icons of the bundled icon sets via
+ * {@link Image#getScaledInstance(int, int, int)} with the progressive
+ * bilinear scaling of {@link GUIHelper#scaleImage(Image, int)}.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class IconScalingBenchmark {
+
+  /** the icon set to use. */
+  @Param({"default", "boxicons_regular", "boxicons_solid", "primo"})
+  public String set;
+
+  /** the size to scale to. */
+  @Param({"16", "32"})
+  public int size;
+
+  /** the unscaled images of the set. */
+  protected List<Image> m_Images;
+
+  /** the unscaled icons of the set. */
+  protected List<ImageIcon> m_Icons;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    Properties	sets;
+    Properties	props;
+    String	location;
+    InputStream	stream;
+    ImageIcon	icon;
+
+    sets = new Properties();
+    try (InputStream in = ClassLoader.getSystemResourceAsStream(IconManager.SETS)) {
+      sets.load(in);
+    }
+    location = sets.getProperty(IconManager.KEY_LOCATION_PREFIX + set);
+    props    = new Properties();
+    stream   = ClassLoader.getSystemResourceAsStream(location + "/icons.props");
+    try {
+      props.load(stream);
+    }
+    finally {
+      stream.close();
+    }
+
+    m_Images = new ArrayList<>();
+    m_Icons  = new ArrayList<>();
+    for (String key: new String[]{IconManager.KEY_DRIVE, IconManager.KEY_OPEN, IconManager.KEY_CLOSED, IconManager.KEY_HOME, IconManager.KEY_NEW_FOLDER, IconManager.KEY_REFRESH}) {
+      if (props.getProperty(key, "").trim().isEmpty())
+	continue;
+      icon = new ImageIcon(ClassLoader.getSystemResource(location + "/" + props.getProperty(key).trim()));
+      m_Icons.add(icon);
+      m_Images.add(icon.getImage());
+    }
+  }
+
+  @Benchmark
+  public void getScaledInstance(Blackhole bh) {
+    for (Image image: m_Images)
+      bh.consume(new ImageIcon(image.getScaledInstance(size, size, Image.SCALE_SMOOTH)));
+  }
+
+  @Benchmark
+  public void progressiveBilinear(Blackhole bh) {
+    for (Image image: m_Images)
+      bh.consume(new ImageIcon(GUIHelper.scaleImage(image, size)));
+  }
+
+  @Benchmark
+  public void scaleIconCached(Blackhole bh) {
+    for (ImageIcon icon: m_Icons)
+      bh.consume(GUIHelper.scaleIcon(icon, size));
+  }
+}
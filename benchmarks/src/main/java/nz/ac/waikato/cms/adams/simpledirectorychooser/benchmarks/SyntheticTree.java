@@ -0,0 +1,172 @@
+/*
+ * SyntheticTree.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.benchmarks;
+
+import javax.swing.SwingUtilities;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Generates synthetic directory trees in a temp directory:
+ * <ul>
+ *   <li>wide - a single directory with many sub-directories</li>
+ *   <li>deep - a chain of nested directories, each with a few siblings</li>
+ *   <li>mixed - sub-directories interleaved with hidden directories and files</li>
+ * </ul>
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class SyntheticTree {
+
+  /** the base directory. */
+  protected File m_Base;
+
+  /** the wide directory. */
+  protected File m_Wide;
+
+  /** the deepest directory. */
+  protected File m_DeepLeaf;
+
+  /** the mixed directory. */
+  protected File m_Mixed;
+
+  /**
+   * Generates the trees.
+   *
+   * @param width	the number of sub-directories for wide/mixed
+   * @param depth	the nesting depth for deep
+   * @throws IOException	if generation fails
+   */
+  public SyntheticTree(int width, int depth) throws IOException {
+    File	dir;
+    int		i;
+    int		n;
+
+    m_Base = Files.createTempDirectory("sdc-bench").toFile();
+
+    m_Wide = new File(m_Base, "wide");
+    for (i = 0; i < width; i++)
+      mkdir(new File(m_Wide, "dir" + i));
+
+    dir = new File(m_Base, "deep");
+    for (i = 0; i < depth; i++) {
+      for (n = 0; n < 3; n++)
+	mkdir(new File(dir, "sibling" + n));
+      dir = new File(dir, "level" + i);
+    }
+    mkdir(dir);
+    m_DeepLeaf = dir;
+
+    m_Mixed = new File(m_Base, "mixed");
+    for (i = 0; i < width; i++) {
+      switch (i % 3) {
+	case 0:
+	  mkdir(new File(m_Mixed, "dir" + i));
+	  break;
+	case 1:
+	  mkdir(new File(m_Mixed, ".hidden" + i));
+	  break;
+	default:
+	  mkdir(m_Mixed);
+	  new File(m_Mixed, "file" + i + ".txt").createNewFile();
+      }
+    }
+  }
+
+  /**
+   * Creates the directory, including parents.
+   *
+   * @param dir		the directory to create
+   * @throws IOException	if creation fails
+   */
+  protected void mkdir(File dir) throws IOException {
+    if (!dir.exists() && !dir.mkdirs())
+      throw new IOException("Failed to create directory: " + dir);
+  }
+
+  /**
+   * Returns the base directory.
+   *
+   * @return		the base
+   */
+  public File getBase() {
+    return m_Base;
+  }
+
+  /**
+   * Returns the directory with many sub-directories.
+   *
+   * @return		the directory
+   */
+  public File getWide() {
+    return m_Wide;
+  }
+
+  /**
+   * Returns the first sub-directories of the wide directory.
+   *
+   * @param count	the number of sub-directories to return
+   * @return		the sub-directories
+   */
+  public File[] getWideChildren(int count) {
+    List<File>	result;
+    int		i;
+
+    result = new ArrayList<>();
+    for (i = 0; i < count; i++)
+      result.add(new File(m_Wide, "dir" + i));
+
+    return result.toArray(new File[0]);
+  }
+
+  /**
+   * Returns the deepest directory.
+   *
+   * @return		the directory
+   */
+  public File getDeepLeaf() {
+    return m_DeepLeaf;
+  }
+
+  /**
+   * Returns the directory with mixed content.
+   *
+   * @return		the directory
+   */
+  public File getMixed() {
+    return m_Mixed;
+  }
+
+  /**
+   * Removes the generated trees.
+   *
+   * @throws IOException	if deletion fails
+   */
+  public void delete() throws IOException {
+    try (Stream<Path> paths = Files.walk(m_Base.toPath())) {
+      paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+    }
+  }
+
+  /**
+   * Runs the code on the event dispatch thread and waits for it to finish.
+   *
+   * @param run		the code to run
+   * @throws Exception	if execution fails
+   */
+  public static void runOnEDT(Runnable run) throws Exception {
+    if (SwingUtilities.isEventDispatchThread())
+      run.run();
+    else
+      SwingUtilities.invokeAndWait(run);
+  }
+}
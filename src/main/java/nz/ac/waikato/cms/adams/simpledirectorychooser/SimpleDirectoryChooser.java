@@ -1,6 +1,6 @@
 /*
  * SimpleDirectoryChooser.java
- * Copyright (C) 2022 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2022-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package nz.ac.waikato.cms.adams.simpledirectorychooser;
@@ -10,9 +10,14 @@ import nz.ac.waikato.cms.adams.simpledirectorychooser.core.OS;
 import nz.ac.waikato.cms.adams.simpledirectorychooser.events.DirectoryChangeEvent;
 import nz.ac.waikato.cms.adams.simpledirectorychooser.events.DirectoryChangeListener;
 import nz.ac.waikato.cms.adams.simpledirectorychooser.icons.IconManager;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.index.DirectoryIndex;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.index.DirectorySearchField;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.scan.DirectoryScanner;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.sort.DirectorySorter;
 import nz.ac.waikato.cms.adams.simpledirectorychooser.tree.DirectoryTreePopupMenuCustomizer;
 
 import javax.swing.BorderFactory;
+import javax.swing.Box;
 import javax.swing.Icon;
 import javax.swing.JButton;
 import javax.swing.JComponent;
@@ -109,6 +114,9 @@ public class SimpleDirectoryChooser
   /** the refresh button. */
   protected JButton m_ButtonRefresh;
 
+  /** the field for searching the directory index. */
+  protected DirectorySearchField m_TextSearch;
+
   /**
    * Constructs a <code>BaseFileChooser</code> pointing to the user's
    * default directory. This default depends on the operating system.
@@ -222,6 +230,15 @@ public class SimpleDirectoryChooser
     m_ButtonRefresh = new JButton(m_PanelDirs.getIconManager().getRefreshIcon());
     m_ButtonRefresh.addActionListener((ActionEvent e) -> refresh());
     m_Toolbar.add(m_ButtonRefresh);
+    m_Toolbar.add(Box.createHorizontalGlue());
+    m_TextSearch = new DirectorySearchField();
+    m_TextSearch.setMaximumSize(m_TextSearch.getPreferredSize());
+    m_TextSearch.setVisible(false);
+    m_TextSearch.addSearchListener((File dir) -> {
+      setCurrentDirectory(dir);
+      m_PanelDirs.requestFocusInWindow();
+    });
+    m_Toolbar.add(m_TextSearch);
     m_PanelWidgets.add(m_Toolbar, BorderLayout.NORTH);
 
     addChangeListener(this);
@@ -1402,4 +1419,139 @@ public class SimpleDirectoryChooser
   public boolean getSortSelectedDirectories() {
     return m_PanelDirs.getSortSelectedDirectories();
   }
+
+  /**
+   * Sets whether to load the sub-directories of expanded nodes in the
+   * background rather than on the event dispatch thread.
+   *
+   * @param value	true if to load asynchronously
+   */
+  public void setAsyncLoading(boolean value) {
+    m_PanelDirs.setAsyncLoading(value);
+  }
+
+  /**
+   * Returns whether the sub-directories of expanded nodes get loaded in the
+   * background rather than on the event dispatch thread.
+   *
+   * @return		true if loaded asynchronously
+   */
+  public boolean isAsyncLoading() {
+    return m_PanelDirs.isAsyncLoading();
+  }
+
+  /**
+   * Sets the scanner to use for listing sub-directories.
+   *
+   * @param value	the scanner
+   */
+  public void setScanner(DirectoryScanner value) {
+    m_PanelDirs.setScanner(value);
+  }
+
+  /**
+   * Returns the scanner in use for listing sub-directories.
+   *
+   * @return		the scanner
+   */
+  public DirectoryScanner getScanner() {
+    return m_PanelDirs.getScanner();
+  }
+
+  /**
+   * Sets the sorter to use for ordering the sub-directories.
+   *
+   * @param value	the sorter
+   */
+  public void setSorter(DirectorySorter value) {
+    m_PanelDirs.setSorter(value);
+  }
+
+  /**
+   * Returns the sorter in use for ordering the sub-directories.
+   *
+   * @return		the sorter
+   */
+  public DirectorySorter getSorter() {
+    return m_PanelDirs.getSorter();
+  }
+
+  /**
+   * Sets whether to monitor expanded directories for changes and update the
+   * tree automatically.
+   *
+   * @param value	true if to monitor
+   */
+  public void setLiveMonitoring(boolean value) {
+    m_PanelDirs.setLiveMonitoring(value);
+  }
+
+  /**
+   * Returns whether expanded directories are monitored for changes.
+   *
+   * @return		true if monitored
+   */
+  public boolean isLiveMonitoring() {
+    return m_PanelDirs.isLiveMonitoring();
+  }
+
+  /**
+   * Sets the delay after which the sub-directories of collapsed nodes get
+   * unloaded.
+   *
+   * @param value	the delay in msec, -1 to never unload
+   */
+  public void setEvictionDelay(long value) {
+    m_PanelDirs.setEvictionDelay(value);
+  }
+
+  /**
+   * Returns the delay after which the sub-directories of collapsed nodes get
+   * unloaded.
+   *
+   * @return		the delay in msec, -1 if never unloaded
+   */
+  public long getEvictionDelay() {
+    return m_PanelDirs.getEvictionDelay();
+  }
+
+  /**
+   * Sets the maximum number of directory nodes to keep in memory.
+   *
+   * @param value	the maximum number of nodes, -1 for unlimited
+   */
+  public void setNodeBudget(int value) {
+    m_PanelDirs.setNodeBudget(value);
+  }
+
+  /**
+   * Returns the maximum number of directory nodes to keep in memory.
+   *
+   * @return		the maximum number of nodes, -1 for unlimited
+   */
+  public int getNodeBudget() {
+    return m_PanelDirs.getNodeBudget();
+  }
+
+  /**
+   * Sets the index of directory names to search via the search field in
+   * the toolbar, e.g., populated by a
+   * {@link nz.ac.waikato.cms.adams.simpledirectorychooser.index.DirectoryCrawler}.
+   * The search field is only visible if an index is set.
+   *
+   * @param value	the index, null to hide the search field
+   */
+  public void setDirectoryIndex(DirectoryIndex value) {
+    m_TextSearch.setIndex(value);
+    m_TextSearch.setVisible(value != null);
+  }
+
+  /**
+   * Returns the index of directory names that can be searched.
+   *
+   * @return		the index, null if none set
+   */
+  public DirectoryIndex getDirectoryIndex() {
+    return m_TextSearch.getIndex();
+  }
 }
@@ -1,6 +1,6 @@
 /*
  * SimpleDirectoryChooserPanel.java
- * Copyright (C) 2022 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2022-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package nz.ac.waikato.cms.adams.simpledirectorychooser;
@@ -9,6 +9,8 @@ import nz.ac.waikato.cms.adams.simpledirectorychooser.core.SimplePanel;
 import nz.ac.waikato.cms.adams.simpledirectorychooser.core.SimpleScrollPane;
 import nz.ac.waikato.cms.adams.simpledirectorychooser.events.DirectoryChangeListener;
 import nz.ac.waikato.cms.adams.simpledirectorychooser.icons.IconManager;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.scan.DirectoryScanner;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.sort.DirectorySorter;
 import nz.ac.waikato.cms.adams.simpledirectorychooser.tree.DirectoryTree;
 import nz.ac.waikato.cms.adams.simpledirectorychooser.tree.DirectoryTreePopupMenuCustomizer;
 
@@ -267,4 +269,117 @@ public class SimpleDirectoryChooserPanel
   public boolean getSortSelectedDirectories() {
     return m_Tree.getSortSelectedDirectories();
   }
+
+  /**
+   * Sets whether to load the sub-directories of expanded nodes in the
+   * background rather than on the event dispatch thread.
+   *
+   * @param value	true if to load asynchronously
+   */
+  public void setAsyncLoading(boolean value) {
+    m_Tree.setAsyncLoading(value);
+  }
+
+  /**
+   * Returns whether the sub-directories of expanded nodes get loaded in the
+   * background rather than on the event dispatch thread.
+   *
+   * @return		true if loaded asynchronously
+   */
+  public boolean isAsyncLoading() {
+    return m_Tree.isAsyncLoading();
+  }
+
+  /**
+   * Sets the scanner to use for listing sub-directories.
+   *
+   * @param value	the scanner
+   */
+  public void setScanner(DirectoryScanner value) {
+    m_Tree.setScanner(value);
+  }
+
+  /**
+   * Returns the scanner in use for listing sub-directories.
+   *
+   * @return		the scanner
+   */
+  public DirectoryScanner getScanner() {
+    return m_Tree.getScanner();
+  }
+
+  /**
+   * Sets the sorter to use for ordering the sub-directories.
+   *
+   * @param value	the sorter
+   */
+  public void setSorter(DirectorySorter value) {
+    m_Tree.setSorter(value);
+  }
+
+  /**
+   * Returns the sorter in use for ordering the sub-directories.
+   *
+   * @return		the sorter
+   */
+  public DirectorySorter getSorter() {
+    return m_Tree.getSorter();
+  }
+
+  /**
+   * Sets whether to monitor expanded directories for changes and update the
+   * tree automatically.
+   *
+   * @param value	true if to monitor
+   */
+  public void setLiveMonitoring(boolean value) {
+    m_Tree.setLiveMonitoring(value);
+  }
+
+  /**
+   * Returns whether expanded directories are monitored for changes.
+   *
+   * @return		true if monitored
+   */
+  public boolean isLiveMonitoring() {
+    return m_Tree.isLiveMonitoring();
+  }
+
+  /**
+   * Sets the delay after which the sub-directories of collapsed nodes get
+   * unloaded.
+   *
+   * @param value	the delay in msec, -1 to never unload
+   */
+  public void setEvictionDelay(long value) {
+    m_Tree.setEvictionDelay(value);
+  }
+
+  /**
+   * Returns the delay after which the sub-directories of collapsed nodes get
+   * unloaded.
+   *
+   * @return		the delay in msec, -1 if never unloaded
+   */
+  public long getEvictionDelay() {
+    return m_Tree.getEvictionDelay();
+  }
+
+  /**
+   * Sets the maximum number of directory nodes to keep in memory.
+   *
+   * @param value	the maximum number of nodes, -1 for unlimited
+   */
+  public void setNodeBudget(int value) {
+    m_Tree.setNodeBudget(value);
+  }
+
+  /**
+   * Returns the maximum number of directory nodes to keep in memory.
+   *
+   * @return		the maximum number of nodes, -1 for unlimited
+   */
+  public int getNodeBudget() {
+    return m_Tree.getNodeBudget();
+  }
 }
@@ -0,0 +1,268 @@
+/*
+ * AbstractLRUCache.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ancestor for thread-safe LRU caches, bounded by number of entries and by
+ * the total weight of the entries. Derived classes determine the weight of
+ * an entry and decide whether a looked up entry is still valid, recording
+ * hits and misses accordingly. Keeps track of hits, misses and evictions.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ * @param <K>	the type of keys
+ * @param <V>	the type of entries
+ */
+public abstract class AbstractLRUCache<K, V> {
+
+  /** the entries, in access order. */
+  protected LinkedHashMap<K, V> m_Entries;
+
+  /** the maximum number of entries, -1 for unlimited. */
+  protected int m_MaxEntries;
+
+  /** the maximum weight, -1 for unlimited. */
+  protected long m_MaxWeight;
+
+  /** the current weight. */
+  protected long m_Weight;
+
+  /** the number of hits. */
+  protected long m_Hits;
+
+  /** the number of misses. */
+  protected long m_Misses;
+
+  /** the number of evictions. */
+  protected long m_Evictions;
+
+  /**
+   * Initializes the cache.
+   *
+   * @param maxEntries	the maximum number of entries, -1 for unlimited
+   * @param maxWeight	the maximum weight, -1 for unlimited
+   */
+  protected AbstractLRUCache(int maxEntries, long maxWeight) {
+    m_Entries    = new LinkedHashMap<>(16, 0.75f, true);
+    m_MaxEntries = maxEntries;
+    m_MaxWeight  = maxWeight;
+    m_Weight     = 0;
+  }
+
+  /**
+   * Returns the weight of the entry.
+   *
+   * @param entry	the entry to weigh
+   * @return		the weight
+   */
+  protected abstract long weigh(V entry);
+
+  /**
+   * Returns the entry for the key and marks it as most recently used.
+   * Neither records a hit nor a miss.
+   *
+   * @param key		the key of the entry
+   * @return		the entry, null if not cached
+   */
+  protected synchronized V lookup(K key) {
+    return m_Entries.get(key);
+  }
+
+  /**
+   * Adds the entry to the cache, evicting least recently used ones if
+   * necessary.
+   *
+   * @param key		the key of the entry
+   * @param entry	the entry to add
+   */
+  protected synchronized void store(K key, V entry) {
+    V	old;
+
+    old = m_Entries.put(key, entry);
+    if (old != null)
+      m_Weight -= weigh(old);
+    m_Weight += weigh(entry);
+
+    evict();
+  }
+
+  /**
+   * Removes the entry for the key. Does not count as eviction.
+   *
+   * @param key		the key of the entry
+   * @return		the removed entry, null if not cached
+   */
+  protected synchronized V remove(K key) {
+    V	result;
+
+    result = m_Entries.remove(key);
+    if (result != null)
+      m_Weight -= weigh(result);
+
+    return result;
+  }
+
+  /**
+   * Evicts the entry that is no longer valid, unless it got replaced in
+   * the meantime.
+   *
+   * @param key		the key of the entry
+   * @param entry	the entry to evict
+   * @return		true if evicted
+   */
+  protected synchronized boolean discard(K key, V entry) {
+    if (!m_Entries.remove(key, entry))
+      return false;
+    m_Weight -= weigh(entry);
+    m_Evictions++;
+    return true;
+  }
+
+  /**
+   * Evicts the least recently used entries until the limits are met.
+   * The most recently added entry never gets evicted.
+   */
+  protected synchronized void evict() {
+    Iterator<Map.Entry<K, V>>	iter;
+    V				entry;
+
+    iter = m_Entries.entrySet().iterator();
+    while ((m_Entries.size() > 1)
+      && (((m_MaxEntries > -1) && (m_Entries.size() > m_MaxEntries)) || ((m_MaxWeight > -1) && (m_Weight > m_MaxWeight)))) {
+      entry = iter.next().getValue();
+      iter.remove();
+      m_Weight -= weigh(entry);
+      m_Evictions++;
+    }
+  }
+
+  /**
+   * Records a cache hit.
+   */
+  protected synchronized void recordHit() {
+    m_Hits++;
+  }
+
+  /**
+   * Records a cache miss.
+   */
+  protected synchronized void recordMiss() {
+    m_Misses++;
+  }
+
+  /**
+   * Removes all entries. Does not reset the statistics.
+   */
+  public synchronized void clear() {
+    m_Entries.clear();
+    m_Weight = 0;
+  }
+
+  /**
+   * Sets the maximum number of entries.
+   *
+   * @param value	the maximum, -1 for unlimited
+   */
+  public synchronized void setMaxEntries(int value) {
+    m_MaxEntries = value;
+    evict();
+  }
+
+  /**
+   * Returns the maximum number of entries.
+   *
+   * @return		the maximum, -1 for unlimited
+   */
+  public synchronized int getMaxEntries() {
+    return m_MaxEntries;
+  }
+
+  /**
+   * Sets the maximum weight.
+   *
+   * @param value	the maximum, -1 for unlimited
+   */
+  protected synchronized void setMaxWeight(long value) {
+    m_MaxWeight = value;
+    evict();
+  }
+
+  /**
+   * Returns the maximum weight.
+   *
+   * @return		the maximum, -1 for unlimited
+   */
+  protected synchronized long getMaxWeight() {
+    return m_MaxWeight;
+  }
+
+  /**
+   * Returns the number of cached entries.
+   *
+   * @return		the number of entries
+   */
+  public synchronized int size() {
+    return m_Entries.size();
+  }
+
+  /**
+   * Returns the current weight.
+   *
+   * @return		the weight
+   */
+  protected synchronized long getWeight() {
+    return m_Weight;
+  }
+
+  /**
+   * Returns the number of cache hits.
+   *
+   * @return		the hits
+   */
+  public synchronized long getHitCount() {
+    return m_Hits;
+  }
+
+  /**
+   * Returns the number of cache misses.
+   *
+   * @return		the misses
+   */
+  public synchronized long getMissCount() {
+    return m_Misses;
+  }
+
+  /**
+   * Returns the number of evicted entries.
+   *
+   * @return		the evictions
+   */
+  public synchronized long getEvictionCount() {
+    return m_Evictions;
+  }
+
+  /**
+   * Resets the hit/miss/eviction counters.
+   */
+  public synchronized void resetStatistics() {
+    m_Hits      = 0;
+    m_Misses    = 0;
+    m_Evictions = 0;
+  }
+
+  /**
+   * Returns a short description of the state of the cache.
+   *
+   * @return		the description
+   */
+  @Override
+  public synchronized String toString() {
+    return "size=" + size() + ", weight=" + m_Weight + ", hits=" + m_Hits + ", misses=" + m_Misses + ", evictions=" + m_Evictions;
+  }
+}
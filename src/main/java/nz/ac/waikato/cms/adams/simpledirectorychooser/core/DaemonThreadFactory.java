@@ -0,0 +1,66 @@
+/*
+ * DaemonThreadFactory.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.core;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factory that generates named daemon threads, so that background
+ * work never prevents the JVM from exiting.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class DaemonThreadFactory
+  implements ThreadFactory {
+
+  /** the prefix for the thread names. */
+  protected String m_Prefix;
+
+  /** the priority of the threads. */
+  protected int m_Priority;
+
+  /** the counter for the threads. */
+  protected AtomicInteger m_Counter;
+
+  /**
+   * Initializes the factory with normal priority threads.
+   *
+   * @param prefix	the prefix for the thread names
+   */
+  public DaemonThreadFactory(String prefix) {
+    this(prefix, Thread.NORM_PRIORITY);
+  }
+
+  /**
+   * Initializes the factory.
+   *
+   * @param prefix	the prefix for the thread names
+   * @param priority	the priority for the threads
+   */
+  public DaemonThreadFactory(String prefix, int priority) {
+    m_Prefix   = prefix;
+    m_Priority = priority;
+    m_Counter  = new AtomicInteger();
+  }
+
+  /**
+   * Constructs a new daemon thread.
+   *
+   * @param r		the runnable to execute
+   * @return		the thread
+   */
+  @Override
+  public Thread newThread(Runnable r) {
+    Thread	result;
+
+    result = new Thread(r, m_Prefix + "-" + m_Counter.incrementAndGet());
+    result.setDaemon(true);
+    result.setPriority(m_Priority);
+
+    return result;
+  }
+}
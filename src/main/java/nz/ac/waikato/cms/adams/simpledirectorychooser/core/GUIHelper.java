@@ -1,6 +1,6 @@
 /*
  * GUIHelper.java
- * Copyright (C) 2022 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2022-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package nz.ac.waikato.cms.adams.simpledirectorychooser.core;
@@ -13,12 +13,21 @@ import java.awt.Container;
 import java.awt.Dialog;
 import java.awt.Frame;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
 import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
 import java.awt.Window;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * GUI related helper functions.
@@ -27,6 +36,31 @@ import java.io.IOException;
  */
 public class GUIHelper {
 
+  /** the cache for scaled icons (source image - size - icon). */
+  protected static final Map<Image, Map<Integer, ImageIcon>> m_ScaledIcons = new WeakHashMap<>();
+
+  /** the multi-resolution image interface (Java 9+), null if not available. */
+  protected static Class<?> m_MultiResolutionImage;
+
+  /** the method for obtaining a resolution variant, null if not available. */
+  protected static Method m_GetResolutionVariant;
+
+  /** the constructor for a multi-resolution image, null if not available. */
+  protected static Constructor<?> m_NewMultiResolutionImage;
+
+  static {
+    try {
+      m_MultiResolutionImage    = Class.forName("java.awt.image.MultiResolutionImage");
+      m_GetResolutionVariant    = m_MultiResolutionImage.getMethod("getResolutionVariant", double.class, double.class);
+      m_NewMultiResolutionImage = Class.forName("java.awt.image.BaseMultiResolutionImage").getConstructor(Image[].class);
+    }
+    catch (Throwable t) {
+      m_MultiResolutionImage    = null;
+      m_GetResolutionVariant    = null;
+      m_NewMultiResolutionImage = null;
+    }
+  }
+
   /**
    * Tries to determine the parent this panel is part of.
    *
@@ -112,7 +146,158 @@ public class GUIHelper {
    * @return		the scaled image
    */
   public static ImageIcon scaleIcon(ImageIcon icon, int size) {
-    return new ImageIcon(icon.getImage().getScaledInstance(size, size, Image.SCALE_SMOOTH));
+    ImageIcon			result;
+    Image			source;
+    Map<Integer, ImageIcon>	scaled;
+
+    source = icon.getImage();
+    synchronized(m_ScaledIcons) {
+      scaled = m_ScaledIcons.get(source);
+      if ((scaled != null) && scaled.containsKey(size))
+	return scaled.get(size);
+    }
+
+    result = new ImageIcon(scaleImage(source, size));
+
+    synchronized(m_ScaledIcons) {
+      scaled = m_ScaledIcons.computeIfAbsent(source, k -> new HashMap<>());
+      scaled.put(size, result);
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the scale factor of the default screen, e.g., 2.0 on HiDPI
+   * displays. Always 1.0 in headless environments or on Java 8.
+   *
+   * @return		the scale factor
+   */
+  public static double getDisplayScale() {
+    if (GraphicsEnvironment.isHeadless())
+      return 1.0;
+    try {
+      return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration().getDefaultTransform().getScaleX();
+    }
+    catch (Exception e) {
+      return 1.0;
+    }
+  }
+
+  /**
+   * Creates an empty image with transparency, compatible with the default
+   * screen if possible.
+   *
+   * @param width	the width of the image
+   * @param height	the height of the image
+   * @return		the image
+   */
+  protected static BufferedImage createImage(int width, int height) {
+    GraphicsConfiguration	config;
+
+    if (!GraphicsEnvironment.isHeadless()) {
+      try {
+	config = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+	return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+      }
+      catch (Exception e) {
+	// ignored
+      }
+    }
+
+    return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+  }
+
+  /**
+   * Returns the best resolution variant of the image for the specified size,
+   * if the image is a multi-resolution one.
+   *
+   * @param image	the image to get the variant from
+   * @param size	the target size
+   * @return		the variant or the image itself
+   */
+  protected static Image getResolutionVariant(Image image, int size) {
+    if ((m_MultiResolutionImage == null) || !m_MultiResolutionImage.isInstance(image))
+      return image;
+    try {
+      return (Image) m_GetResolutionVariant.invoke(image, (double) size, (double) size);
+    }
+    catch (Exception e) {
+      return image;
+    }
+  }
+
+  /**
+   * Scales the image to the specified size, using progressive bilinear
+   * downscaling (ie halving the size until close to the target size).
+   *
+   * @param image	the image to scale, must be loaded
+   * @param size	the size to scale to
+   * @return		the scaled image
+   */
+  protected static BufferedImage scaleSingle(Image image, int size) {
+    BufferedImage	result;
+    Image		current;
+    int			width;
+    int			height;
+    Graphics2D		g;
+
+    current = image;
+    width   = image.getWidth(null);
+    height  = image.getHeight(null);
+
+    do {
+      if ((width / 2 >= size) && (height / 2 >= size)) {
+	width  /= 2;
+	height /= 2;
+      }
+      else {
+	width  = size;
+	height = size;
+      }
+      result = createImage(width, height);
+      g      = result.createGraphics();
+      g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, (current == image) && (width > image.getWidth(null)) ? RenderingHints.VALUE_INTERPOLATION_BICUBIC : RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      g.setRenderingHint(RenderingHints.KEY_ALPHA_INTERPOLATION, RenderingHints.VALUE_ALPHA_INTERPOLATION_QUALITY);
+      g.drawImage(current, 0, 0, width, height, null);
+      g.dispose();
+      current = result;
+    }
+    while ((width != size) || (height != size));
+
+    return result;
+  }
+
+  /**
+   * Scales the image to the specified size. On HiDPI displays (Java 9+), a
+   * multi-resolution image is generated that also contains a variant for
+   * the display scale.
+   *
+   * @param image	the image to scale, must be loaded
+   * @param size	the size to scale to
+   * @return		the scaled image
+   */
+  public static Image scaleImage(Image image, int size) {
+    BufferedImage	base;
+    double		scale;
+    int			hiSize;
+
+    if ((size <= 0) || (image.getWidth(null) <= 0) || (image.getHeight(null) <= 0))
+      return image.getScaledInstance(size, size, Image.SCALE_SMOOTH);
+
+    base   = scaleSingle(getResolutionVariant(image, size), size);
+    scale  = getDisplayScale();
+    hiSize = (int) Math.round(size * scale);
+    if ((hiSize == size) || (m_NewMultiResolutionImage == null))
+      return base;
+
+    try {
+      return (Image) m_NewMultiResolutionImage.newInstance((Object) new Image[]{base, scaleSingle(getResolutionVariant(image, hiSize), hiSize)});
+    }
+    catch (Exception e) {
+      return base;
+    }
   }
 
   /**
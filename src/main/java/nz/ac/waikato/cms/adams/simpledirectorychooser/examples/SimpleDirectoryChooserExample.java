@@ -1,11 +1,12 @@
 /*
  * StandardSimpleDirectoryChooser.java
- * Copyright (C) 2022 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2022-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package nz.ac.waikato.cms.adams.simpledirectorychooser.examples;
 
 import nz.ac.waikato.cms.adams.simpledirectorychooser.SimpleDirectoryChooser;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.icons.IconManager;
 
 import javax.swing.JFileChooser;
 import java.io.File;
@@ -18,6 +19,7 @@ import java.io.File;
 public class SimpleDirectoryChooserExample {
 
   public static void main(String[] args) throws Exception {
+    IconManager.preload();
     SimpleDirectoryChooser fileChooser = new SimpleDirectoryChooser();
     fileChooser.setPopupMenuEnabled(true);
     if (args.length > 0)
@@ -0,0 +1,209 @@
+/*
+ * IconAtlas.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.icons;
+
+import javax.imageio.ImageIO;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Icon set packed into a single file: the properties of the set (see
+ * icons.props) plus all its images in a single PNG sprite sheet.
+ * <br>
+ * Format:
+ * <ul>
+ *   <li>magic (int)</li>
+ *   <li>version (int)</li>
+ *   <li>length of index (int), index (properties, UTF-8)</li>
+ *   <li>PNG</li>
+ * </ul>
+ * The index contains the properties of the icon set and, for each image,
+ * a region entry ({@link #REGION_PREFIX} + filename = x,y,width,height).
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class IconAtlas {
+
+  /** the name of the atlas file in an icon set directory. */
+  public final static String FILENAME = "icons.atlas";
+
+  /** the magic number ("SDCA"). */
+  public final static int MAGIC = 0x53444341;
+
+  /** the format version. */
+  public final static int VERSION = 1;
+
+  /** the prefix for region keys in the index. */
+  public final static String REGION_PREFIX = "atlas.region.";
+
+  /** the properties of the icon set. */
+  protected Properties m_Properties;
+
+  /** the regions of the images (filename - region). */
+  protected Map<String, Rectangle> m_Regions;
+
+  /** the sprite sheet. */
+  protected BufferedImage m_Image;
+
+  /**
+   * Initializes the atlas.
+   *
+   * @param props	the properties of the icon set
+   * @param regions	the regions of the images
+   * @param image	the sprite sheet
+   */
+  public IconAtlas(Properties props, Map<String, Rectangle> regions, BufferedImage image) {
+    m_Properties = props;
+    m_Regions    = regions;
+    m_Image      = image;
+  }
+
+  /**
+   * Returns the properties of the icon set.
+   *
+   * @return		the properties
+   */
+  public Properties getProperties() {
+    return m_Properties;
+  }
+
+  /**
+   * Returns the regions of the images.
+   *
+   * @return		the regions (filename - region)
+   */
+  public Map<String, Rectangle> getRegions() {
+    return m_Regions;
+  }
+
+  /**
+   * Returns the sprite sheet.
+   *
+   * @return		the image
+   */
+  public BufferedImage getImage() {
+    return m_Image;
+  }
+
+  /**
+   * Returns whether the atlas contains the image.
+   *
+   * @param name	the filename of the image
+   * @return		true if available
+   */
+  public boolean hasImage(String name) {
+    return m_Regions.containsKey(name);
+  }
+
+  /**
+   * Returns the image.
+   *
+   * @param name	the filename of the image
+   * @return		the image, null if not available
+   */
+  public BufferedImage getImage(String name) {
+    Rectangle	region;
+
+    region = m_Regions.get(name);
+    if (region == null)
+      return null;
+
+    return m_Image.getSubimage(region.x, region.y, region.width, region.height);
+  }
+
+  /**
+   * Writes the atlas to the stream.
+   *
+   * @param stream	the stream to write to
+   * @throws IOException	if writing fails
+   */
+  public void write(OutputStream stream) throws IOException {
+    DataOutputStream		out;
+    Properties			index;
+    ByteArrayOutputStream	indexBytes;
+    Rectangle			region;
+
+    index = new Properties();
+    index.putAll(m_Properties);
+    for (String name: m_Regions.keySet()) {
+      region = m_Regions.get(name);
+      index.setProperty(REGION_PREFIX + name, region.x + "," + region.y + "," + region.width + "," + region.height);
+    }
+    indexBytes = new ByteArrayOutputStream();
+    index.store(new OutputStreamWriter(indexBytes, StandardCharsets.UTF_8), null);
+
+    out = new DataOutputStream(stream);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(indexBytes.size());
+    indexBytes.writeTo(out);
+    if (!ImageIO.write(m_Image, "png", out))
+      throw new IOException("No PNG writer available!");
+    out.flush();
+  }
+
+  /**
+   * Reads an atlas from the stream.
+   *
+   * @param stream	the stream to read from
+   * @return		the atlas
+   * @throws IOException	if reading fails or not an atlas
+   */
+  public static IconAtlas read(InputStream stream) throws IOException {
+    DataInputStream		in;
+    byte[]			indexBytes;
+    Properties			index;
+    Properties			props;
+    Map<String, Rectangle>	regions;
+    String[]			parts;
+    BufferedImage		image;
+
+    in = new DataInputStream(stream);
+    if (in.readInt() != MAGIC)
+      throw new IOException("Not an icon atlas!");
+    if (in.readInt() != VERSION)
+      throw new IOException("Unsupported icon atlas version!");
+    indexBytes = new byte[in.readInt()];
+    in.readFully(indexBytes);
+    index = new Properties();
+    index.load(new InputStreamReader(new ByteArrayInputStream(indexBytes), StandardCharsets.UTF_8));
+
+    props   = new Properties();
+    regions = new HashMap<>();
+    for (String key: index.stringPropertyNames()) {
+      if (key.startsWith(REGION_PREFIX)) {
+	parts = index.getProperty(key).split(",");
+	if (parts.length != 4)
+	  throw new IOException("Invalid region for '" + key + "': " + index.getProperty(key));
+	regions.put(key.substring(REGION_PREFIX.length()), new Rectangle(
+	  Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()),
+	  Integer.parseInt(parts[2].trim()), Integer.parseInt(parts[3].trim())));
+      }
+      else {
+	props.setProperty(key, index.getProperty(key));
+      }
+    }
+
+    image = ImageIO.read(in);
+    if (image == null)
+      throw new IOException("Failed to read sprite sheet of icon atlas!");
+
+    return new IconAtlas(props, regions, image);
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * IconAtlasPacker.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.icons;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Packs the icon sets stored as separate PNG files into {@link IconAtlas}
+ * files, placed next to the icons.props file of each set. Executed at
+ * build time.
+ * <br>
+ * Usage: IconAtlasPacker &lt;resources dir&gt; [sets props resource]
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class IconAtlasPacker {
+
+  /** the padding between images. */
+  public final static int PADDING = 1;
+
+  /**
+   * Loads the properties file.
+   *
+   * @param file	the file to load
+   * @return		the properties
+   * @throws IOException	if loading fails
+   */
+  protected static Properties loadProperties(File file) throws IOException {
+    Properties	result;
+
+    result = new Properties();
+    try (InputStream in = new FileInputStream(file)) {
+      result.load(in);
+    }
+
+    return result;
+  }
+
+  /**
+   * Packs the icon set in the specified directory.
+   *
+   * @param dir		the directory of the icon set
+   * @return		the atlas
+   * @throws IOException	if reading images fails
+   */
+  public static IconAtlas pack(File dir) throws IOException {
+    Properties			props;
+    Map<String, BufferedImage>	images;
+    Map<String, Rectangle>	regions;
+    String			name;
+    BufferedImage		image;
+    BufferedImage		sheet;
+    Graphics2D			g;
+    int				width;
+    int				height;
+    int				x;
+
+    props  = loadProperties(new File(dir, "icons.props"));
+    images = new LinkedHashMap<>();
+    for (String key: IconManager.ICON_KEYS) {
+      name = props.getProperty(key, "").trim();
+      if (name.isEmpty() || images.containsKey(name))
+	continue;
+      image = ImageIO.read(new File(dir, name));
+      if (image == null)
+	throw new IOException("Failed to read image: " + new File(dir, name));
+      images.put(name, image);
+    }
+
+    // single row of images
+    width  = 0;
+    height = 1;
+    for (BufferedImage img: images.values()) {
+      width += img.getWidth() + PADDING;
+      height = Math.max(height, img.getHeight());
+    }
+    width = Math.max(1, width);
+
+    sheet   = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    regions = new LinkedHashMap<>();
+    g       = sheet.createGraphics();
+    x       = 0;
+    for (String n: images.keySet()) {
+      image = images.get(n);
+      g.drawImage(image, x, 0, null);
+      regions.put(n, new Rectangle(x, 0, image.getWidth(), image.getHeight()));
+      x += image.getWidth() + PADDING;
+    }
+    g.dispose();
+
+    return new IconAtlas(props, regions, sheet);
+  }
+
+  /**
+   * Packs all icon sets.
+   *
+   * @param resources	the directory with the resources
+   * @param sets	the resource path to the props file with the sets
+   * @return		the generated atlas files
+   * @throws IOException	if packing fails
+   */
+  public static List<File> packAll(File resources, String sets) throws IOException {
+    List<File>	result;
+    Properties	props;
+    File	dir;
+    File	file;
+    IconAtlas	atlas;
+
+    result = new ArrayList<>();
+    props  = loadProperties(new File(resources, sets));
+    for (String set: props.getProperty(IconManager.KEY_AVAILABLE_SETS, "").split(",")) {
+      set = set.trim();
+      if (set.isEmpty())
+	continue;
+      dir = new File(resources, props.getProperty(IconManager.KEY_LOCATION_PREFIX + set));
+      if (!new File(dir, "icons.props").exists())
+	continue;
+      atlas = pack(dir);
+      file  = new File(dir, IconAtlas.FILENAME);
+      try (OutputStream out = new FileOutputStream(file)) {
+	atlas.write(out);
+      }
+      result.add(file);
+    }
+
+    return result;
+  }
+
+  /**
+   * Packs the icon sets.
+   *
+   * @param args	the resources directory and optionally the sets props resource
+   * @throws Exception	if packing fails
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length == 0) {
+      System.err.println("Usage: " + IconAtlasPacker.class.getName() + " <resources dir> [sets props resource]");
+      System.exit(1);
+    }
+    for (File file: packAll(new File(args[0]), (args.length > 1) ? args[1] : IconManager.SETS))
+      System.out.println("Packed: " + file);
+  }
+}
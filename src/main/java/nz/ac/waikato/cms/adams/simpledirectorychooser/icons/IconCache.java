@@ -0,0 +1,203 @@
+/*
+ * IconCache.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.icons;
+
+import nz.ac.waikato.cms.adams.simpledirectorychooser.core.AbstractLRUCache;
+
+import javax.swing.Icon;
+import java.lang.ref.SoftReference;
+
+/**
+ * Thread-safe LRU cache for icons, bounded by number of entries and by
+ * weight (estimated raster size in bytes). Optionally, the icons can be
+ * held via soft references, allowing the garbage collector to reclaim them
+ * under memory pressure. Keeps track of hits, misses and evictions.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class IconCache
+  extends AbstractLRUCache<String, IconCache.Entry> {
+
+  /** the default maximum number of entries. */
+  public final static int DEFAULT_MAX_ENTRIES = 2000;
+
+  /** the default maximum weight in bytes. */
+  public final static long DEFAULT_MAX_WEIGHT = 4L * 1024 * 1024;
+
+  /**
+   * Container for a cached icon.
+   */
+  protected static class Entry {
+
+    /** the icon, either the icon itself or a soft reference. */
+    public Object value;
+
+    /** the weight. */
+    public long weight;
+
+    /**
+     * Returns the icon.
+     *
+     * @return		the icon, null if garbage collected
+     */
+    public Icon getIcon() {
+      if (value instanceof SoftReference)
+	return (Icon) ((SoftReference) value).get();
+      else
+	return (Icon) value;
+    }
+  }
+
+  /** whether to use soft references. */
+  protected boolean m_SoftReferences;
+
+  /**
+   * Initializes the cache with the default limits and hard references.
+   */
+  public IconCache() {
+    this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_WEIGHT, false);
+  }
+
+  /**
+   * Initializes the cache.
+   *
+   * @param maxEntries		the maximum number of entries, -1 for unlimited
+   * @param maxWeight		the maximum weight in bytes, -1 for unlimited
+   * @param softReferences	whether to hold the icons via soft references
+   */
+  public IconCache(int maxEntries, long maxWeight, boolean softReferences) {
+    super(maxEntries, maxWeight);
+    m_SoftReferences = softReferences;
+  }
+
+  /**
+   * Returns the weight of the entry.
+   *
+   * @param entry	the entry to weigh
+   * @return		the weight in bytes
+   */
+  @Override
+  protected long weigh(Entry entry) {
+    return entry.weight;
+  }
+
+  /**
+   * Estimates the weight of the icon, i.e., the size of an ARGB raster.
+   *
+   * @param icon	the icon to weigh
+   * @return		the weight in bytes
+   */
+  protected long weigh(Icon icon) {
+    return (long) Math.max(1, icon.getIconWidth()) * Math.max(1, icon.getIconHeight()) * 4;
+  }
+
+  /**
+   * Returns the cached icon.
+   *
+   * @param key		the key of the icon
+   * @return		the icon, null if not cached
+   */
+  public synchronized Icon get(String key) {
+    Entry	entry;
+    Icon	result;
+
+    entry = lookup(key);
+    if (entry == null) {
+      recordMiss();
+      return null;
+    }
+
+    result = entry.getIcon();
+    if (result == null) {
+      // soft reference got cleared
+      discard(key, entry);
+      recordMiss();
+    }
+    else {
+      recordHit();
+    }
+
+    return result;
+  }
+
+  /**
+   * Adds the icon to the cache, evicting least recently used ones if
+   * necessary.
+   *
+   * @param key		the key of the icon
+   * @param icon	the icon to cache
+   */
+  public synchronized void put(String key, Icon icon) {
+    put(key, icon, weigh(icon));
+  }
+
+  /**
+   * Adds the icon to the cache with an explicit weight, evicting least
+   * recently used ones if necessary. Useful for shared icons, whose raster
+   * is not owned by the cache.
+   *
+   * @param key		the key of the icon
+   * @param icon	the icon to cache
+   * @param weight	the weight in bytes
+   */
+  public synchronized void put(String key, Icon icon, long weight) {
+    Entry	entry;
+
+    entry        = new Entry();
+    entry.weight = weight;
+    entry.value  = m_SoftReferences ? new SoftReference<>(icon) : icon;
+    store(key, entry);
+  }
+
+  /**
+   * Sets the maximum weight (estimated raster size in bytes).
+   *
+   * @param value	the maximum, -1 for unlimited
+   */
+  @Override
+  public synchronized void setMaxWeight(long value) {
+    super.setMaxWeight(value);
+  }
+
+  /**
+   * Returns the maximum weight (estimated raster size in bytes).
+   *
+   * @return		the maximum, -1 for unlimited
+   */
+  @Override
+  public synchronized long getMaxWeight() {
+    return super.getMaxWeight();
+  }
+
+  /**
+   * Sets whether to hold the icons via soft references. Only affects icons
+   * that get added afterwards.
+   *
+   * @param value	true if to use soft references
+   */
+  public synchronized void setSoftReferences(boolean value) {
+    m_SoftReferences = value;
+  }
+
+  /**
+   * Returns whether the icons are held via soft references.
+   *
+   * @return		true if soft references are used
+   */
+  public synchronized boolean getSoftReferences() {
+    return m_SoftReferences;
+  }
+
+  /**
+   * Returns the current weight (estimated raster size in bytes).
+   *
+   * @return		the weight
+   */
+  @Override
+  public synchronized long getWeight() {
+    return super.getWeight();
+  }
+}
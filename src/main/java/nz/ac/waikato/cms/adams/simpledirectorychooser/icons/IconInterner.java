@@ -0,0 +1,240 @@
+/*
+ * IconInterner.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.icons;
+
+import nz.ac.waikato.cms.adams.simpledirectorychooser.core.GUIHelper;
+
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Interns (scaled) system icons, so that all directories that display the
+ * same icon share a single instance. Icons are looked up by the identity of
+ * the source icon first and then by their pixels, since some platforms hand
+ * out a new instance for every request.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class IconInterner {
+
+  /** the default maximum number of distinct icons to keep. */
+  public final static int DEFAULT_MAX_ICONS = 256;
+
+  /**
+   * Key based on the dimensions and pixels of an icon.
+   */
+  protected static class IconKey {
+
+    /** the width. */
+    protected int m_Width;
+
+    /** the height. */
+    protected int m_Height;
+
+    /** the ARGB pixels. */
+    protected int[] m_Pixels;
+
+    /** the hash code. */
+    protected int m_Hash;
+
+    /**
+     * Initializes the key.
+     *
+     * @param width	the width
+     * @param height	the height
+     * @param pixels	the ARGB pixels
+     */
+    public IconKey(int width, int height, int[] pixels) {
+      m_Width  = width;
+      m_Height = height;
+      m_Pixels = pixels;
+      m_Hash   = 31 * (31 * width + height) + Arrays.hashCode(pixels);
+    }
+
+    /**
+     * Returns the hash code, based on dimensions and pixels.
+     *
+     * @return		the hash code
+     */
+    @Override
+    public int hashCode() {
+      return m_Hash;
+    }
+
+    /**
+     * Checks whether the object is a key with the same dimensions and pixels.
+     *
+     * @param obj	the object to compare with
+     * @return		true if the same
+     */
+    @Override
+    public boolean equals(Object obj) {
+      IconKey	other;
+
+      if (!(obj instanceof IconKey))
+	return false;
+      other = (IconKey) obj;
+      return (m_Hash == other.m_Hash)
+	&& (m_Width == other.m_Width)
+	&& (m_Height == other.m_Height)
+	&& Arrays.equals(m_Pixels, other.m_Pixels);
+    }
+  }
+
+  /** the interned icons, keyed by identity of the source icon. */
+  protected Map<Icon, WeakReference<Icon>> m_BySource;
+
+  /** the interned icons, keyed by pixels of the source icon (access order). */
+  protected LinkedHashMap<IconKey, Icon> m_ByPixels;
+
+  /** the size to scale the icons to. */
+  protected int m_Size;
+
+  /** the maximum number of distinct icons. */
+  protected int m_MaxIcons;
+
+  /**
+   * Initializes the interner.
+   *
+   * @param size	the size to scale the icons to
+   */
+  public IconInterner(int size) {
+    this(size, DEFAULT_MAX_ICONS);
+  }
+
+  /**
+   * Initializes the interner.
+   *
+   * @param size	the size to scale the icons to
+   * @param maxIcons	the maximum number of distinct icons to keep
+   */
+  public IconInterner(int size, int maxIcons) {
+    m_BySource = new WeakHashMap<>();
+    m_ByPixels = new LinkedHashMap<>(16, 0.75f, true);
+    m_Size     = size;
+    m_MaxIcons = maxIcons;
+  }
+
+  /**
+   * Returns the size the icons get scaled to.
+   *
+   * @return		the size
+   */
+  public int getSize() {
+    return m_Size;
+  }
+
+  /**
+   * Renders the icon into an ARGB image.
+   *
+   * @param icon	the icon to render
+   * @return		the image, null if failed to render
+   */
+  protected BufferedImage render(Icon icon) {
+    BufferedImage	result;
+    Graphics2D		g;
+
+    if ((icon.getIconWidth() <= 0) || (icon.getIconHeight() <= 0))
+      return null;
+
+    try {
+      result = new BufferedImage(icon.getIconWidth(), icon.getIconHeight(), BufferedImage.TYPE_INT_ARGB);
+      g      = result.createGraphics();
+      icon.paintIcon(null, g, 0, 0);
+      g.dispose();
+    }
+    catch (Exception e) {
+      result = null;
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the shared instance for the icon, scaling image icons to the
+   * configured size.
+   *
+   * @param icon	the source icon, eg from the file system view
+   * @return		the shared icon
+   */
+  public synchronized Icon intern(Icon icon) {
+    Icon			result;
+    WeakReference<Icon>		ref;
+    BufferedImage		image;
+    IconKey			key;
+
+    if (icon == null)
+      return null;
+
+    ref = m_BySource.get(icon);
+    if (ref != null) {
+      result = ref.get();
+      if (result != null)
+	return result;
+    }
+
+    image = render(icon);
+    if (image == null) {
+      if (icon instanceof ImageIcon)
+	return GUIHelper.scaleIcon((ImageIcon) icon, m_Size);
+      else
+	return icon;
+    }
+
+    key    = new IconKey(image.getWidth(), image.getHeight(), image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth()));
+    result = m_ByPixels.get(key);
+    if (result == null) {
+      // scale the rendered copy, which does not reference the source icon
+      if (icon instanceof ImageIcon)
+	result = GUIHelper.scaleIcon(new ImageIcon(image), m_Size);
+      else
+	result = icon;
+      m_ByPixels.put(key, result);
+      evict();
+    }
+    m_BySource.put(icon, new WeakReference<>(result));
+
+    return result;
+  }
+
+  /**
+   * Removes the least recently used icons if there are too many.
+   */
+  protected void evict() {
+    Iterator<IconKey>	iter;
+
+    iter = m_ByPixels.keySet().iterator();
+    while ((m_ByPixels.size() > m_MaxIcons) && iter.hasNext()) {
+      iter.next();
+      iter.remove();
+    }
+  }
+
+  /**
+   * Returns the number of distinct icons.
+   *
+   * @return		the number of icons
+   */
+  public synchronized int size() {
+    return m_ByPixels.size();
+  }
+
+  /**
+   * Removes all icons.
+   */
+  public synchronized void clear() {
+    m_BySource.clear();
+    m_ByPixels.clear();
+  }
+}
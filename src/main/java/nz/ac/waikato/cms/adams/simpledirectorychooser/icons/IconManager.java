@@ -1,15 +1,17 @@
 /*
  * IconManager.java
- * Copyright (C) 2022 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2022-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package nz.ac.waikato.cms.adams.simpledirectorychooser.icons;
 
+import nz.ac.waikato.cms.adams.simpledirectorychooser.core.DaemonThreadFactory;
 import nz.ac.waikato.cms.adams.simpledirectorychooser.core.GUIHelper;
 
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
 import javax.swing.filechooser.FileSystemView;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.InputStream;
 import java.util.Arrays;
@@ -18,6 +20,11 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 /**
  * Manages the icons for the tree.
@@ -65,18 +72,42 @@ public class IconManager {
   /** the key for the refresh icon. */
   public final static String KEY_REFRESH = "refresh";
 
+  /** the keys of all the icons of an icon set. */
+  public final static String[] ICON_KEYS = {KEY_DRIVE, KEY_CLOSED, KEY_OPEN, KEY_HOME, KEY_NEW_FOLDER, KEY_REFRESH};
+
   /** the default icon size. */
   public final static int DEFAULT_ICON_SIZE = 16;
 
+  /** the estimated weight of a system icon cache entry that shares its icon. */
+  public final static long SHARED_ICON_WEIGHT = 64;
+
+  /** the sets definitions shared by all managers (resource path - properties). */
+  protected static final Map<String, Future<Properties>> m_SharedSets = new HashMap<>();
+
+  /** the resolved icon sets shared by all managers (class and location - slots). */
+  protected static final Map<String, Future<IconSlots>> m_SharedSlots = new HashMap<>();
+
+  /** the executor for preloading icon sets. */
+  protected static ExecutorService m_PreloadExecutor;
+
   /** the properties for the sets. */
   protected Properties m_Sets;
 
   /** the properties for the active set. */
   protected Properties m_ActiveSet;
 
-  /** the icon cache. */
+  /** the resolved icons of the active set. */
+  protected volatile IconSlots m_Slots;
+
+  /** the icon cache for the icon set. */
   protected Map<String, Icon> m_Cache;
 
+  /** the cache for the system icons. */
+  protected IconCache m_SystemIconCache;
+
+  /** the shared instances of the system icons. */
+  protected IconInterner m_SystemIconInterner;
+
   /** the filesystem view. */
   protected FileSystemView m_View;
 
@@ -97,7 +128,7 @@ public class IconManager {
     Properties  props;
 
     initializeMembers();
-    props = loadProperties(sets);
+    props = getSharedSets(sets);
     msg   = checkSets(props);
     if (msg != null)
       throw new IllegalStateException("Icon sets definition invalid:\n" + msg);
@@ -125,7 +156,8 @@ public class IconManager {
    * Initializes members
    */
   protected void initializeMembers() {
-    m_Cache = new HashMap<>();
+    m_Cache           = new HashMap<>();
+    m_SystemIconCache = new IconCache();
   }
 
   /**
@@ -135,6 +167,16 @@ public class IconManager {
    * @return		the properties
    */
   protected Properties loadProperties(String props) {
+    return readProperties(props);
+  }
+
+  /**
+   * Reads the specified properties.
+   *
+   * @param props	the resource path to the props file
+   * @return		the properties, empty if failed to read
+   */
+  protected static Properties readProperties(String props) {
     Properties 		result;
     InputStream		stream;
 
@@ -251,16 +293,150 @@ public class IconManager {
    * Initializes the icon set.
    */
   protected void initializeActiveSet() {
-    String	filename;
+    String			key;
+    Future<IconSlots>		future;
+    FutureTask<IconSlots>	task;
+    IconSlots			slots;
+
+    // resolve the set only once across all managers, waiting for any
+    // preloading that is still in progress
+    key  = getClass().getName() + "|" + m_Sets.getProperty(KEY_LOCATION_PREFIX + getActiveSet());
+    task = null;
+    synchronized(m_SharedSlots) {
+      future = m_SharedSlots.get(key);
+      if (future == null) {
+	task   = new FutureTask<>(this::loadSlots);
+	future = task;
+	m_SharedSlots.put(key, future);
+      }
+    }
+    if (task != null)
+      task.run();
+
+    try {
+      slots = future.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      slots = loadSlots();
+    }
+    catch (ExecutionException e) {
+      synchronized(m_SharedSlots) {
+	m_SharedSlots.remove(key, future);
+      }
+      if (e.getCause() instanceof RuntimeException)
+	throw (RuntimeException) e.getCause();
+      throw new IllegalStateException("Failed to initialize icon set '" + getActiveSet() + "'!", e.getCause());
+    }
+
+    m_ActiveSet = slots.getProperties();
+    m_Slots     = slots;
+
+    // icon size might have changed
+    m_SystemIconCache.clear();
+    m_SystemIconInterner = new IconInterner(m_Slots.getIconSize());
+  }
+
+  /**
+   * Loads the properties of the active icon set and resolves its icons.
+   *
+   * @return		the resolved icons
+   */
+  protected IconSlots loadSlots() {
+    String	location;
+    IconAtlas	atlas;
     Properties	props;
     String	msg;
 
-    filename = m_Sets.getProperty(KEY_LOCATION_PREFIX + getActiveSet()) + "/icons.props";
-    props    = loadProperties(filename);
-    msg      = checkIconSet(props);
+    location = m_Sets.getProperty(KEY_LOCATION_PREFIX + getActiveSet());
+    atlas    = loadAtlas(location);
+    if (atlas != null)
+      props = atlas.getProperties();
+    else
+      props = loadProperties(location + "/icons.props");
+    msg = checkIconSet(props);
     if (msg != null)
       throw new IllegalStateException("Failed to initialize icon set '" + getActiveSet() + "':\n" + msg);
-    m_ActiveSet = props;
+
+    return createSlots(props, atlas);
+  }
+
+  /**
+   * Loads the packed icon set, if available.
+   *
+   * @param location	the resource location of the icon set
+   * @return		the atlas, null if not available or failed to load
+   */
+  protected IconAtlas loadAtlas(String location) {
+    InputStream		stream;
+
+    stream = ClassLoader.getSystemResourceAsStream(location + "/" + IconAtlas.FILENAME);
+    if (stream == null)
+      return null;
+
+    try {
+      return IconAtlas.read(new BufferedInputStream(stream));
+    }
+    catch (Exception e) {
+      System.err.println("Failed to read icon atlas: " + location + "/" + IconAtlas.FILENAME);
+      e.printStackTrace();
+      return null;
+    }
+    finally {
+      try {
+	stream.close();
+      }
+      catch (Exception e) {
+	// ignored
+      }
+    }
+  }
+
+  /**
+   * Parses the icon size from the icon set properties.
+   *
+   * @param props	the properties of the icon set
+   * @return		the size, {@link #DEFAULT_ICON_SIZE} if not parseable
+   */
+  protected int parseIconSize(Properties props) {
+    try {
+      return Integer.parseInt(props.getProperty(KEY_ICON_SIZE));
+    }
+    catch (Exception e) {
+      return DEFAULT_ICON_SIZE;
+    }
+  }
+
+  /**
+   * Resolves all the icons of the icon set.
+   *
+   * @param props	the properties of the icon set
+   * @return		the resolved icons
+   */
+  protected IconSlots createSlots(Properties props) {
+    return createSlots(props, null);
+  }
+
+  /**
+   * Resolves all the icons of the icon set.
+   *
+   * @param props	the properties of the icon set
+   * @param atlas	the packed icon set, null if to load the separate files
+   * @return		the resolved icons
+   */
+  protected IconSlots createSlots(Properties props, IconAtlas atlas) {
+    int		size;
+
+    size = parseIconSize(props);
+    return new IconSlots(
+      props,
+      size,
+      resolveIcon(props, atlas, KEY_DRIVE, size),
+      resolveIcon(props, atlas, KEY_OPEN, size),
+      resolveIcon(props, atlas, KEY_CLOSED, size),
+      resolveIcon(props, atlas, KEY_HOME, size),
+      resolveIcon(props, atlas, KEY_NEW_FOLDER, size),
+      resolveIcon(props, atlas, KEY_REFRESH, size));
   }
 
   /**
@@ -290,13 +466,26 @@ public class IconManager {
    * @return		the icon, null if failed to load
    */
   protected Icon loadIcon(String resource) {
+    return loadIcon(resource, getIconSize());
+  }
+
+  /**
+   * Loads the icon from a resource path.
+   *
+   * @param resource	the icon to load
+   * @param size	the size to scale to
+   * @return		the icon, null if failed to load
+   */
+  protected Icon loadIcon(String resource, int size) {
     Icon	result;
 
-    if (m_Cache.containsKey(resource)) {
-      result = m_Cache.get(resource);
+    synchronized(m_Cache) {
+      if (m_Cache.containsKey(resource))
+	return m_Cache.get(resource);
     }
-    else {
-      result = GUIHelper.loadIcon(resource, getIconSize());
+
+    result = GUIHelper.loadIcon(resource, size);
+    synchronized(m_Cache) {
       m_Cache.put(resource, result);
     }
 
@@ -304,37 +493,73 @@ public class IconManager {
   }
 
   /**
-   * Returns the icon for the specified key.
+   * Resolves the icon for the specified key of the icon set.
    *
+   * @param props	the properties of the icon set
    * @param key		the key for the icon
+   * @param size	the size to scale to
    * @return		the icon, null if not available
    */
-  protected Icon getIcon(String key) {
+  protected Icon resolveIcon(Properties props, String key, int size) {
+    return resolveIcon(props, null, key, size);
+  }
+
+  /**
+   * Resolves the icon for the specified key of the icon set.
+   *
+   * @param props	the properties of the icon set
+   * @param atlas	the packed icon set, null if to load the separate files
+   * @param key		the key for the icon
+   * @param size	the size to scale to
+   * @return		the icon, null if not available
+   */
+  protected Icon resolveIcon(Properties props, IconAtlas atlas, String key, int size) {
     Icon	result;
     String	dir;
     String	name;
     String	filename;
 
-    dir      = m_Sets.getProperty(KEY_LOCATION_PREFIX + getActiveSet());
-    name     = m_ActiveSet.getProperty(key);
-    if (name.trim().isEmpty()) {
+    dir  = m_Sets.getProperty(KEY_LOCATION_PREFIX + getActiveSet());
+    name = props.getProperty(key);
+    if ((name == null) || name.trim().isEmpty()) {
       result = null;
     }
+    else if ((atlas != null) && atlas.hasImage(name.trim())) {
+      result = GUIHelper.scaleIcon(new ImageIcon(atlas.getImage(name.trim())), size);
+    }
     else {
       filename = dir + "/" + name;
-      result = loadIcon(filename);
+      result   = loadIcon(filename, size);
     }
 
     return result;
   }
 
+  /**
+   * Returns the icon for the specified key.
+   *
+   * @param key		the key for the icon
+   * @return		the icon, null if not available
+   */
+  protected Icon getIcon(String key) {
+    IconSlots	slots;
+    Icon	result;
+
+    slots  = m_Slots;
+    result = slots.getIcon(key);
+    if (result == null)
+      result = resolveIcon(slots.getProperties(), key, slots.getIconSize());
+
+    return result;
+  }
+
   /**
    * Returns the drive icon.
    *
    * @return		the icon, null if none available
    */
   public Icon getDriveIcon() {
-    return getIcon(KEY_DRIVE);
+    return m_Slots.getDriveIcon();
   }
 
   /**
@@ -343,7 +568,7 @@ public class IconManager {
    * @return		the icon, null if none available
    */
   public Icon getOpenIcon() {
-    return getIcon(KEY_OPEN);
+    return m_Slots.getOpenIcon();
   }
 
   /**
@@ -352,7 +577,7 @@ public class IconManager {
    * @return		the icon, null if none available
    */
   public Icon getClosedIcon() {
-    return getIcon(KEY_CLOSED);
+    return m_Slots.getClosedIcon();
   }
 
   /**
@@ -361,7 +586,7 @@ public class IconManager {
    * @return		the icon, null if none available
    */
   public Icon getHomeIcon() {
-    return getIcon(KEY_HOME);
+    return m_Slots.getHomeIcon();
   }
 
   /**
@@ -370,7 +595,7 @@ public class IconManager {
    * @return		the icon, null if none available
    */
   public Icon getNewFolderIcon() {
-    return getIcon(KEY_NEW_FOLDER);
+    return m_Slots.getNewFolderIcon();
   }
 
   /**
@@ -379,7 +604,16 @@ public class IconManager {
    * @return		the icon, null if none available
    */
   public Icon getRefreshIcon() {
-    return getIcon(KEY_REFRESH);
+    return m_Slots.getRefreshIcon();
+  }
+
+  /**
+   * Returns the resolved icons of the active set.
+   *
+   * @return		the icons
+   */
+  public IconSlots getSlots() {
+    return m_Slots;
   }
 
   /**
@@ -388,12 +622,7 @@ public class IconManager {
    * @return		the size
    */
   public int getIconSize() {
-    try {
-      return Integer.parseInt(m_ActiveSet.getProperty(KEY_ICON_SIZE));
-    }
-    catch (Exception e) {
-      return DEFAULT_ICON_SIZE;
-    }
+    return m_Slots.getIconSize();
   }
 
   /**
@@ -406,16 +635,129 @@ public class IconManager {
     Icon	result;
     String	path;
 
-    path = dir.getAbsolutePath();
-    if (m_Cache.containsKey(path))
-      return m_Cache.get(path);
+    path   = dir.getAbsolutePath();
+    result = m_SystemIconCache.get(path);
+    if (result != null)
+      return result;
+
+    result = m_SystemIconInterner.intern(getView().getSystemIcon(dir));
+    if (result != null)
+      m_SystemIconCache.put(path, result, SHARED_ICON_WEIGHT + 2L * path.length());
+
+    return result;
+  }
+
+  /**
+   * Returns the cache for the system icons, e.g., for adjusting its limits
+   * or inspecting its statistics.
+   *
+   * @return		the cache
+   */
+  public IconCache getSystemIconCache() {
+    return m_SystemIconCache;
+  }
+
+  /**
+   * Returns the number of distinct system icons currently in use.
+   *
+   * @return		the number of icons
+   */
+  public int getSystemIconCount() {
+    return m_SystemIconInterner.size();
+  }
 
-    result = getView().getSystemIcon(dir);
-    if (result instanceof ImageIcon)
-      result = GUIHelper.scaleIcon((ImageIcon) result, getIconSize());
+  /**
+   * Returns the executor for preloading icon sets.
+   *
+   * @return		the executor
+   */
+  protected static synchronized ExecutorService getPreloadExecutor() {
+    if (m_PreloadExecutor == null)
+      m_PreloadExecutor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("IconManager-preload", Thread.MIN_PRIORITY));
+    return m_PreloadExecutor;
+  }
 
-    m_Cache.put(path, result);
+  /**
+   * Loads and scales the icons of the active predefined icon set in the
+   * background, e.g., at application start. Managers created afterwards use
+   * the preloaded icons (or wait for the preloading to finish) instead of
+   * loading the icons themselves.
+   *
+   * @return		the future for the resolved icons
+   */
+  public static Future<IconSlots> preload() {
+    return preload(SETS, null);
+  }
+
+  /**
+   * Loads and scales the icons of the specified icon set in the background,
+   * e.g., at application start. Managers created afterwards use the
+   * preloaded icons (or wait for the preloading to finish) instead of
+   * loading the icons themselves.
+   *
+   * @param sets	the resource path to the props file with the sets
+   * @param name	the name of the set to preload, null for the active one
+   * @return		the future for the resolved icons
+   */
+  public static Future<IconSlots> preload(String sets, String name) {
+    return getPreloadExecutor().submit(() -> {
+      Properties props = getSharedSets(sets);
+      if (name != null) {
+	if (!Arrays.asList(props.getProperty(KEY_AVAILABLE_SETS, "").split(",")).contains(name))
+	  throw new IllegalStateException("Invalid icon set name (available: " + props.getProperty(KEY_AVAILABLE_SETS) + "): " + name);
+	props.setProperty(KEY_ACTIVE_SET, name);
+      }
+      return new IconManager(props).getSlots();
+    });
+  }
+
+  /**
+   * Returns a copy of the sets definition, reading it only once across all
+   * managers (e.g., during preloading rather than on the event dispatch
+   * thread). Definitions that failed to read get read again next time.
+   *
+   * @param sets	the resource path to the props file with the sets
+   * @return		the properties
+   */
+  protected static Properties getSharedSets(String sets) {
+    Future<Properties>		future;
+    FutureTask<Properties>	task;
+    Properties			props;
+    Properties			result;
+
+    task = null;
+    synchronized(m_SharedSets) {
+      future = m_SharedSets.get(sets);
+      if (future == null) {
+	task   = new FutureTask<>(() -> readProperties(sets));
+	future = task;
+	m_SharedSets.put(sets, future);
+      }
+    }
+    if (task != null)
+      task.run();
+
+    try {
+      props = future.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      props = readProperties(sets);
+    }
+    catch (ExecutionException e) {
+      props = new Properties();
+    }
+    if (props.isEmpty()) {
+      synchronized(m_SharedSets) {
+	m_SharedSets.remove(sets, future);
+      }
+    }
+
+    // managers modify their definition when switching sets
+    result = new Properties();
+    result.putAll(props);
 
     return result;
   }
 }
+
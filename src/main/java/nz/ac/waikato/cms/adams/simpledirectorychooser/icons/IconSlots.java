@@ -0,0 +1,162 @@
+/*
+ * IconSlots.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.icons;
+
+import javax.swing.Icon;
+import java.util.Properties;
+
+/**
+ * Immutable container for the resolved icons of an icon set, allowing the
+ * icon manager to swap all of them in one go.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class IconSlots {
+
+  /** the properties of the icon set. */
+  protected final Properties m_Properties;
+
+  /** the icon size. */
+  protected final int m_IconSize;
+
+  /** the drive icon. */
+  protected final Icon m_Drive;
+
+  /** the open folder icon. */
+  protected final Icon m_Open;
+
+  /** the closed folder icon. */
+  protected final Icon m_Closed;
+
+  /** the home icon. */
+  protected final Icon m_Home;
+
+  /** the new folder icon. */
+  protected final Icon m_NewFolder;
+
+  /** the refresh icon. */
+  protected final Icon m_Refresh;
+
+  /**
+   * Initializes the slots.
+   *
+   * @param props	the properties of the icon set
+   * @param iconSize	the icon size
+   * @param drive	the drive icon, can be null
+   * @param open	the open folder icon, can be null
+   * @param closed	the closed folder icon, can be null
+   * @param home	the home icon, can be null
+   * @param newFolder	the new folder icon, can be null
+   * @param refresh	the refresh icon, can be null
+   */
+  public IconSlots(Properties props, int iconSize, Icon drive, Icon open, Icon closed, Icon home, Icon newFolder, Icon refresh) {
+    m_Properties = props;
+    m_IconSize   = iconSize;
+    m_Drive      = drive;
+    m_Open       = open;
+    m_Closed     = closed;
+    m_Home       = home;
+    m_NewFolder  = newFolder;
+    m_Refresh    = refresh;
+  }
+
+  /**
+   * Returns the properties of the icon set.
+   *
+   * @return		the properties
+   */
+  public Properties getProperties() {
+    return m_Properties;
+  }
+
+  /**
+   * Returns the icon size.
+   *
+   * @return		the size
+   */
+  public int getIconSize() {
+    return m_IconSize;
+  }
+
+  /**
+   * Returns the drive icon.
+   *
+   * @return		the icon, null if none available
+   */
+  public Icon getDriveIcon() {
+    return m_Drive;
+  }
+
+  /**
+   * Returns the open folder icon.
+   *
+   * @return		the icon, null if none available
+   */
+  public Icon getOpenIcon() {
+    return m_Open;
+  }
+
+  /**
+   * Returns the closed folder icon.
+   *
+   * @return		the icon, null if none available
+   */
+  public Icon getClosedIcon() {
+    return m_Closed;
+  }
+
+  /**
+   * Returns the home icon.
+   *
+   * @return		the icon, null if none available
+   */
+  public Icon getHomeIcon() {
+    return m_Home;
+  }
+
+  /**
+   * Returns the new folder icon.
+   *
+   * @return		the icon, null if none available
+   */
+  public Icon getNewFolderIcon() {
+    return m_NewFolder;
+  }
+
+  /**
+   * Returns the refresh icon.
+   *
+   * @return		the icon, null if none available
+   */
+  public Icon getRefreshIcon() {
+    return m_Refresh;
+  }
+
+  /**
+   * Returns the icon for the specified key.
+   *
+   * @param key		the key (see IconManager.KEY_* constants)
+   * @return		the icon, null if not available or unknown key
+   */
+  public Icon getIcon(String key) {
+    switch (key) {
+      case IconManager.KEY_DRIVE:
+	return m_Drive;
+      case IconManager.KEY_OPEN:
+	return m_Open;
+      case IconManager.KEY_CLOSED:
+	return m_Closed;
+      case IconManager.KEY_HOME:
+	return m_Home;
+      case IconManager.KEY_NEW_FOLDER:
+	return m_NewFolder;
+      case IconManager.KEY_REFRESH:
+	return m_Refresh;
+      default:
+	return null;
+    }
+  }
+}
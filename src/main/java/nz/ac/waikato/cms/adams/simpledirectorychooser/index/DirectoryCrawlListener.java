@@ -0,0 +1,22 @@
+/*
+ * DirectoryCrawlListener.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.index;
+
+/**
+ * Interface for classes that get notified when a {@link DirectoryCrawler}
+ * has finished crawling. Not called for crawls that got stopped.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public interface DirectoryCrawlListener {
+
+  /**
+   * Gets called from a background thread when the crawl has finished.
+   *
+   * @param crawler	the crawler that finished
+   */
+  public void crawlFinished(DirectoryCrawler crawler);
+}
@@ -0,0 +1,546 @@
+/*
+ * DirectoryCrawler.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.index;
+
+import nz.ac.waikato.cms.adams.simpledirectorychooser.core.DaemonThreadFactory;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.scan.DirectoryScanner;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.scan.FileDirectoryScanner;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Crawls the directory structure below the root directories on a pool of
+ * low priority background threads and adds the directories to a
+ * {@link MemoryDirectoryIndex}. The index can be searched while the crawl
+ * is still running. The crawl can be throttled by pausing after each
+ * directory that got listed and can be stopped at any time.
+ * <br>
+ * If the index of a previous crawl (with the same settings) is available,
+ * directories whose modification timestamp hasn't changed since then are
+ * not listed again, but their sub-directories are taken from the previous
+ * index. The sub-directories themselves still get checked, as changes
+ * further down do not change the timestamp of a directory.
+ * <br>
+ * Symbolic links below the roots are not followed, as links pointing back
+ * at an ancestor would make the crawl grow exponentially with the depth.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class DirectoryCrawler {
+
+  /** the default number of threads. */
+  public final static int DEFAULT_THREADS = 2;
+
+  /** the default maximum depth below the roots. */
+  public final static int DEFAULT_MAX_DEPTH = 32;
+
+  /**
+   * Lists a single directory and schedules its sub-directories.
+   */
+  protected class CrawlTask
+    implements Runnable {
+
+    /** the generation of the crawl the task belongs to. */
+    protected int m_CrawlGeneration;
+
+    /** the epoch of the index the ID belongs to. */
+    protected int m_Epoch;
+
+    /** the ID of the directory in the index. */
+    protected int m_ID;
+
+    /** the directory to list. */
+    protected File m_Directory;
+
+    /** the depth below the root. */
+    protected int m_Depth;
+
+    /** the ID of the directory in the previous index, -1 if not present. */
+    protected int m_PreviousID;
+
+    /**
+     * Initializes the task.
+     *
+     * @param generation	the generation of the crawl
+     * @param epoch	the epoch of the index the ID belongs to
+     * @param id	the ID of the directory in the index
+     * @param dir	the directory to list
+     * @param depth	the depth below the root
+     * @param previousID	the ID in the previous index, -1 if not present
+     */
+    public CrawlTask(int generation, int epoch, int id, File dir, int depth, int previousID) {
+      m_CrawlGeneration = generation;
+      m_Epoch           = epoch;
+      m_ID              = id;
+      m_Directory       = dir;
+      m_Depth           = depth;
+      m_PreviousID      = previousID;
+    }
+
+    /**
+     * Adds the sub-directories of the previous index.
+     *
+     * @return		false if the crawl got stopped
+     */
+    protected boolean reuse() {
+      int	first;
+      int	i;
+      int	id;
+      String	name;
+
+      first = m_Previous.getFirstChild(m_PreviousID);
+      for (i = 0; i < m_Previous.getChildCount(m_PreviousID); i++) {
+	if (!isCurrent(m_CrawlGeneration))
+	  return false;
+	name = m_Previous.getName(first + i);
+	id   = m_Index.add(m_Epoch, m_ID, name);
+	if (id == MemoryDirectoryIndex.STALE)
+	  return false;
+	if (m_Depth + 1 < m_MaxDepth)
+	  submit(new CrawlTask(m_CrawlGeneration, m_Epoch, id, new File(m_Directory, name), m_Depth + 1, first + i));
+      }
+
+      return true;
+    }
+
+    /**
+     * Lists the directory and adds the sub-directories.
+     *
+     * @return		false if the crawl got stopped
+     */
+    protected boolean list() {
+      List<File>		dirs;
+      Map<String,Integer>	previous;
+      int			first;
+      int			i;
+      int			id;
+
+      dirs = m_Scanner.scan(m_Directory, m_ShowHidden);
+      m_Crawled.incrementAndGet();
+
+      // sub-directories of the previous crawl
+      previous = new HashMap<>();
+      if (m_PreviousID > -1) {
+	first = m_Previous.getFirstChild(m_PreviousID);
+	for (i = 0; i < m_Previous.getChildCount(m_PreviousID); i++)
+	  previous.put(m_Previous.getName(first + i), first + i);
+      }
+
+      for (File dir: dirs) {
+	if (!isCurrent(m_CrawlGeneration))
+	  return false;
+	if (Files.isSymbolicLink(dir.toPath()))
+	  continue;
+	id = m_Index.add(m_Epoch, m_ID, dir.getName());
+	if (id == MemoryDirectoryIndex.STALE)
+	  return false;
+	if (m_Depth + 1 < m_MaxDepth)
+	  submit(new CrawlTask(m_CrawlGeneration, m_Epoch, id, dir, m_Depth + 1, previous.getOrDefault(dir.getName(), -1)));
+      }
+
+      return true;
+    }
+
+    /**
+     * Lists the directory.
+     */
+    @Override
+    public void run() {
+      long	modified;
+      boolean	completed;
+
+      try {
+	if (!isCurrent(m_CrawlGeneration))
+	  return;
+	modified = m_Directory.lastModified();
+	if (!m_Index.setModified(m_Epoch, m_ID, modified))
+	  return;
+	if ((m_PreviousID > -1) && (modified != 0) && (m_Previous.getModified(m_PreviousID) == modified)) {
+	  m_Reused.incrementAndGet();
+	  completed = reuse();
+	}
+	else {
+	  completed = list();
+	}
+	if (completed && (m_Throttle > 0))
+	  Thread.sleep(m_Throttle);
+      }
+      catch (InterruptedException e) {
+	// stopped
+      }
+      finally {
+	done(m_CrawlGeneration);
+      }
+    }
+  }
+
+  /** the index to add the directories to. */
+  protected MemoryDirectoryIndex m_Index;
+
+  /** the root directories. */
+  protected File[] m_Roots;
+
+  /** the scanner to use. */
+  protected DirectoryScanner m_Scanner;
+
+  /** whether to include hidden directories. */
+  protected boolean m_ShowHidden;
+
+  /** the number of threads. */
+  protected int m_NumThreads;
+
+  /** the pause in msec after listing a directory. */
+  protected long m_Throttle;
+
+  /** the maximum depth below the roots. */
+  protected int m_MaxDepth;
+
+  /** the index of the previous crawl, null if not available. */
+  protected MappedDirectoryIndex m_Previous;
+
+  /** the executor, null if not running. */
+  protected ExecutorService m_Executor;
+
+  /** the number of scheduled directories that haven't been listed yet. */
+  protected AtomicInteger m_Pending;
+
+  /** the number of listed directories. */
+  protected AtomicInteger m_Crawled;
+
+  /** the number of directories taken over from the previous index. */
+  protected AtomicInteger m_Reused;
+
+  /** whether the crawl got stopped. */
+  protected volatile boolean m_Stopped;
+
+  /** the generation of the crawl, tasks of older crawls get ignored. */
+  protected volatile int m_Generation;
+
+  /** for waiting on the crawl to finish. */
+  protected CountDownLatch m_Finished;
+
+  /** the listeners. */
+  protected Set<DirectoryCrawlListener> m_CrawlListeners;
+
+  /**
+   * Initializes the crawler.
+   *
+   * @param index	the index to add the directories to
+   * @param roots	the root directories to crawl
+   */
+  public DirectoryCrawler(MemoryDirectoryIndex index, File... roots) {
+    m_Index          = index;
+    m_Roots          = roots.clone();
+    m_Scanner        = new FileDirectoryScanner();
+    m_ShowHidden     = false;
+    m_NumThreads     = DEFAULT_THREADS;
+    m_Throttle       = 0;
+    m_MaxDepth       = DEFAULT_MAX_DEPTH;
+    m_Previous       = null;
+    m_Executor       = null;
+    m_Pending        = new AtomicInteger();
+    m_Crawled        = new AtomicInteger();
+    m_Reused         = new AtomicInteger();
+    m_Stopped        = false;
+    m_Generation     = 0;
+    m_Finished       = new CountDownLatch(0);
+    m_CrawlListeners = new CopyOnWriteArraySet<>();
+  }
+
+  /**
+   * Returns the index the directories get added to.
+   *
+   * @return		the index
+   */
+  public MemoryDirectoryIndex getIndex() {
+    return m_Index;
+  }
+
+  /**
+   * Sets the scanner to use for listing the directories.
+   *
+   * @param value	the scanner
+   */
+  public void setScanner(DirectoryScanner value) {
+    if (value == null)
+      throw new IllegalArgumentException("Scanner cannot be null!");
+    m_Scanner = value;
+  }
+
+  /**
+   * Returns the scanner used for listing the directories.
+   *
+   * @return		the scanner
+   */
+  public DirectoryScanner getScanner() {
+    return m_Scanner;
+  }
+
+  /**
+   * Sets whether to include hidden directories.
+   *
+   * @param value	true if to include
+   */
+  public void setShowHidden(boolean value) {
+    m_ShowHidden = value;
+  }
+
+  /**
+   * Returns whether hidden directories are included.
+   *
+   * @return		true if included
+   */
+  public boolean getShowHidden() {
+    return m_ShowHidden;
+  }
+
+  /**
+   * Sets the number of threads to crawl with. Takes effect with the next crawl.
+   *
+   * @param value	the number of threads (at least 1)
+   */
+  public void setNumThreads(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("At least one thread required: " + value);
+    m_NumThreads = value;
+  }
+
+  /**
+   * Returns the number of threads to crawl with.
+   *
+   * @return		the number of threads
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Sets the pause after listing a directory, to reduce the load on the
+   * file system. Can be changed while crawling.
+   *
+   * @param value	the pause in msec, 0 to crawl at full speed
+   */
+  public void setThrottle(long value) {
+    m_Throttle = Math.max(0, value);
+  }
+
+  /**
+   * Returns the pause after listing a directory.
+   *
+   * @return		the pause in msec, 0 if crawling at full speed
+   */
+  public long getThrottle() {
+    return m_Throttle;
+  }
+
+  /**
+   * Sets the maximum depth below the roots to crawl.
+   *
+   * @param value	the maximum depth
+   */
+  public void setMaxDepth(int value) {
+    m_MaxDepth = value;
+  }
+
+  /**
+   * Returns the maximum depth below the roots to crawl.
+   *
+   * @return		the maximum depth
+   */
+  public int getMaxDepth() {
+    return m_MaxDepth;
+  }
+
+  /**
+   * Sets the index of a previous crawl, to avoid listing directories that
+   * haven't changed since. Takes effect with the next crawl.
+   *
+   * @param value	the previous index, null to list all directories
+   */
+  public void setPrevious(MappedDirectoryIndex value) {
+    m_Previous = value;
+  }
+
+  /**
+   * Returns the index of the previous crawl.
+   *
+   * @return		the previous index, null if not set
+   */
+  public MappedDirectoryIndex getPrevious() {
+    return m_Previous;
+  }
+
+  /**
+   * Checks whether the crawl of the specified generation is still active.
+   *
+   * @param generation	the generation to check
+   * @return		true if still active
+   */
+  protected boolean isCurrent(int generation) {
+    return (generation == m_Generation) && !m_Stopped;
+  }
+
+  /**
+   * Schedules the task, if its crawl is still active.
+   *
+   * @param task	the task to schedule
+   */
+  protected synchronized void submit(CrawlTask task) {
+    if (!isCurrent(task.m_CrawlGeneration))
+      return;
+    m_Pending.incrementAndGet();
+    m_Executor.execute(task);
+  }
+
+  /**
+   * Gets called when a task of the specified generation has completed.
+   *
+   * @param generation	the generation of the task
+   */
+  protected void done(int generation) {
+    synchronized(this) {
+      if (!isCurrent(generation))
+	return;
+      if (m_Pending.decrementAndGet() > 0)
+	return;
+      finished();
+    }
+
+    for (DirectoryCrawlListener l: m_CrawlListeners)
+      l.crawlFinished(this);
+  }
+
+  /**
+   * Starts crawling the roots in the background. Clears the index first.
+   * Does nothing if already crawling.
+   */
+  public synchronized void start() {
+    ThreadPoolExecutor	executor;
+    File		root;
+    int			epoch;
+
+    if (isRunning())
+      return;
+
+    m_Index.clear();
+    epoch = m_Index.getEpoch();
+    m_Generation++;
+    m_Stopped  = false;
+    m_Crawled.set(0);
+    m_Reused.set(0);
+    m_Pending.set(1);
+    m_Finished = new CountDownLatch(1);
+    executor   = new ThreadPoolExecutor(
+      m_NumThreads, m_NumThreads, 0L, TimeUnit.MILLISECONDS,
+      new LinkedBlockingQueue<>(), new DaemonThreadFactory(getClass().getSimpleName(), Thread.MIN_PRIORITY));
+    m_Executor = executor;
+    for (File r: m_Roots) {
+      root = r.getAbsoluteFile();
+      if (root.isDirectory())
+	submit(new CrawlTask(m_Generation, epoch, m_Index.addRoot(epoch, root), root, 0, (m_Previous == null) ? -1 : m_Previous.indexOfRoot(root)));
+    }
+    done(m_Generation);
+  }
+
+  /**
+   * Gets called when all scheduled directories have been listed.
+   */
+  protected synchronized void finished() {
+    m_Executor.shutdown();
+    m_Executor = null;
+    m_Finished.countDown();
+  }
+
+  /**
+   * Stops the crawl. The directories found so far remain in the index.
+   */
+  public synchronized void stop() {
+    if (!isRunning())
+      return;
+    m_Stopped = true;
+    m_Executor.shutdownNow();
+    m_Executor = null;
+    m_Finished.countDown();
+  }
+
+  /**
+   * Returns whether the crawl is still running.
+   *
+   * @return		true if running
+   */
+  public synchronized boolean isRunning() {
+    return (m_Executor != null);
+  }
+
+  /**
+   * Returns whether the last crawl got stopped before it finished.
+   *
+   * @return		true if stopped
+   */
+  public boolean isStopped() {
+    return m_Stopped;
+  }
+
+  /**
+   * Returns the number of directories that have been listed so far.
+   *
+   * @return		the number of directories
+   */
+  public int getCrawledCount() {
+    return m_Crawled.get();
+  }
+
+  /**
+   * Returns the number of directories that have been taken over from the
+   * previous index so far, i.e., that didn't have to be listed.
+   *
+   * @return		the number of directories
+   */
+  public int getReusedCount() {
+    return m_Reused.get();
+  }
+
+  /**
+   * Adds the listener to notify when a crawl has finished.
+   *
+   * @param l		the listener to add
+   */
+  public void addCrawlListener(DirectoryCrawlListener l) {
+    m_CrawlListeners.add(l);
+  }
+
+  /**
+   * Removes the listener.
+   *
+   * @param l		the listener to remove
+   */
+  public void removeCrawlListener(DirectoryCrawlListener l) {
+    m_CrawlListeners.remove(l);
+  }
+
+  /**
+   * Waits for the crawl to finish or get stopped.
+   *
+   * @param timeout	the maximum time to wait in msec
+   * @return		true if finished, false if timed out
+   * @throws InterruptedException	if interrupted while waiting
+   */
+  public boolean waitFor(long timeout) throws InterruptedException {
+    return m_Finished.await(timeout, TimeUnit.MILLISECONDS);
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * DirectoryIndex.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.index;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Interface for indices of directory names that can be searched for
+ * fragments of names. Implementations must be thread-safe, as the index
+ * can get searched while it is still being built.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public interface DirectoryIndex {
+
+  /**
+   * Returns the number of directories in the index.
+   *
+   * @return		the number of directories
+   */
+  public int size();
+
+  /**
+   * Searches for directories whose name contains the query (case-insensitive).
+   * Exact matches come first, followed by names starting with the query.
+   *
+   * @param query	the fragment of the name to look for
+   * @param max		the maximum number of directories to return
+   * @return		the matching directories
+   */
+  public List<File> search(String query, int max);
+}
@@ -0,0 +1,379 @@
+/*
+ * DirectorySearchField.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.index;
+
+import nz.ac.waikato.cms.adams.simpledirectorychooser.core.DaemonThreadFactory;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.core.SimpleScrollPane;
+
+import javax.swing.JList;
+import javax.swing.JPopupMenu;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.Dimension;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Text field for searching a {@link DirectoryIndex} while typing. The
+ * matching directories are displayed in a popup below the field; the
+ * cursor keys move through the matches, enter (the first match by default)
+ * or a click picks one and escape closes the popup. The listeners get notified of the picked
+ * directory.
+ * <br>
+ * The index gets searched in the background once typing pauses for
+ * {@link #getDelay()} msec, only the matches of the latest query get
+ * displayed.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class DirectorySearchField
+  extends JTextField {
+
+  /** for serialization. */
+  private static final long serialVersionUID = 4838254731839302184L;
+
+  /** the default maximum number of matches to display. */
+  public final static int DEFAULT_MAX_RESULTS = 20;
+
+  /** the default delay in msec after typing before searching. */
+  public final static int DEFAULT_DELAY = 150;
+
+  /** the executor for searching the indices. */
+  protected static ExecutorService m_SearchExecutor;
+
+  /** the index to search, can be null. */
+  protected DirectoryIndex m_Index;
+
+  /** the maximum number of matches to display. */
+  protected int m_MaxResults;
+
+  /** the list of matches. */
+  protected JList<File> m_ListResults;
+
+  /** the popup for the matches. */
+  protected JPopupMenu m_PopupResults;
+
+  /** the listeners. */
+  protected Set<DirectorySearchListener> m_SearchListeners;
+
+  /** the timer for starting the search once typing pauses. */
+  protected Timer m_Timer;
+
+  /** the generation of the query, results of older ones get discarded. */
+  protected int m_Generation;
+
+  /** whether a search is running in the background. */
+  protected boolean m_Running;
+
+  /** whether to pick the first match of the pending search. */
+  protected boolean m_PickPending;
+
+  /**
+   * Initializes the field without an index.
+   */
+  public DirectorySearchField() {
+    this(null);
+  }
+
+  /**
+   * Initializes the field.
+   *
+   * @param index	the index to search, can be null
+   */
+  public DirectorySearchField(DirectoryIndex index) {
+    super(15);
+
+    m_Index           = index;
+    m_MaxResults      = DEFAULT_MAX_RESULTS;
+    m_SearchListeners = new HashSet<>();
+    m_Generation      = 0;
+    m_Running         = false;
+    m_PickPending     = false;
+    m_Timer           = new Timer(DEFAULT_DELAY, e -> startSearch());
+    m_Timer.setRepeats(false);
+
+    m_ListResults = new JList<>();
+    m_ListResults.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+    m_ListResults.setFocusable(false);
+    m_ListResults.addMouseListener(new MouseAdapter() {
+      @Override
+      public void mouseClicked(MouseEvent e) {
+	super.mouseClicked(e);
+	select(m_ListResults.locationToIndex(e.getPoint()));
+      }
+    });
+    m_PopupResults = new JPopupMenu();
+    m_PopupResults.setFocusable(false);
+    m_PopupResults.add(new SimpleScrollPane(m_ListResults));
+
+    setToolTipText("Search directories by name");
+    getDocument().addDocumentListener(new DocumentListener() {
+      @Override
+      public void insertUpdate(DocumentEvent e) {
+	search();
+      }
+      @Override
+      public void removeUpdate(DocumentEvent e) {
+	search();
+      }
+      @Override
+      public void changedUpdate(DocumentEvent e) {
+	search();
+      }
+    });
+    addKeyListener(new KeyAdapter() {
+      @Override
+      public void keyPressed(KeyEvent e) {
+	super.keyPressed(e);
+	switch (e.getKeyCode()) {
+	  case KeyEvent.VK_DOWN:
+	    move(1);
+	    e.consume();
+	    break;
+	  case KeyEvent.VK_UP:
+	    move(-1);
+	    e.consume();
+	    break;
+	  case KeyEvent.VK_ENTER:
+	    if (isSearching()) {
+	      m_PickPending = true;
+	      e.consume();
+	    }
+	    else if (m_ListResults.getModel().getSize() > 0) {
+	      select(Math.max(0, m_ListResults.getSelectedIndex()));
+	      e.consume();
+	    }
+	    break;
+	  case KeyEvent.VK_ESCAPE:
+	    if (m_PopupResults.isVisible()) {
+	      m_PopupResults.setVisible(false);
+	      e.consume();
+	    }
+	    break;
+	}
+      }
+    });
+  }
+
+  /**
+   * Sets the index to search.
+   *
+   * @param value	the index, null to disable searching
+   */
+  public void setIndex(DirectoryIndex value) {
+    m_Index = value;
+    search();
+  }
+
+  /**
+   * Returns the index that gets searched.
+   *
+   * @return		the index, null if none set
+   */
+  public DirectoryIndex getIndex() {
+    return m_Index;
+  }
+
+  /**
+   * Sets the maximum number of matches to display.
+   *
+   * @param value	the maximum
+   */
+  public void setMaxResults(int value) {
+    m_MaxResults = value;
+  }
+
+  /**
+   * Returns the maximum number of matches to display.
+   *
+   * @return		the maximum
+   */
+  public int getMaxResults() {
+    return m_MaxResults;
+  }
+
+  /**
+   * Sets the delay after typing before searching.
+   *
+   * @param value	the delay in msec
+   */
+  public void setDelay(int value) {
+    m_Timer.setInitialDelay(value);
+  }
+
+  /**
+   * Returns the delay after typing before searching.
+   *
+   * @return		the delay in msec
+   */
+  public int getDelay() {
+    return m_Timer.getInitialDelay();
+  }
+
+  /**
+   * Returns whether a search is pending or running.
+   *
+   * @return		true if searching
+   */
+  public boolean isSearching() {
+    return m_Timer.isRunning() || m_Running;
+  }
+
+  /**
+   * Returns the executor for searching the indices.
+   *
+   * @return		the executor
+   */
+  protected static synchronized ExecutorService getSearchExecutor() {
+    if (m_SearchExecutor == null)
+      m_SearchExecutor = Executors.newSingleThreadExecutor(new DaemonThreadFactory("DirectorySearchField-search"));
+    return m_SearchExecutor;
+  }
+
+  /**
+   * Schedules a search for the current text, discarding any pending one.
+   * Clears the matches immediately if there is nothing to search for.
+   */
+  protected void search() {
+    m_Generation++;
+    m_Running     = false;
+    m_PickPending = false;
+    m_Timer.stop();
+    if ((m_Index == null) || getText().trim().isEmpty())
+      display(new ArrayList<>());
+    else
+      m_Timer.restart();
+  }
+
+  /**
+   * Searches the index for the current text in the background and displays
+   * the matches, unless the text changed in the meantime.
+   */
+  protected void startSearch() {
+    final DirectoryIndex	index;
+    final String		query;
+    final int			max;
+    final int			generation;
+
+    if (m_Index == null)
+      return;
+
+    index      = m_Index;
+    query      = getText();
+    max        = m_MaxResults;
+    generation = m_Generation;
+    m_Running  = true;
+    getSearchExecutor().submit(() -> {
+      List<File> matches;
+      try {
+	matches = index.search(query, max);
+      }
+      catch (Exception e) {
+	System.err.println("Failed to search directory index for: " + query);
+	e.printStackTrace();
+	matches = new ArrayList<>();
+      }
+      final List<File> fMatches = matches;
+      SwingUtilities.invokeLater(() -> {
+	if (generation != m_Generation)
+	  return;
+	m_Running = false;
+	display(fMatches);
+	if (m_PickPending) {
+	  m_PickPending = false;
+	  select(0);
+	}
+      });
+    });
+  }
+
+  /**
+   * Displays the matches.
+   *
+   * @param matches	the matching directories
+   */
+  protected void display(List<File> matches) {
+    m_ListResults.setListData(matches.toArray(new File[0]));
+    if (matches.isEmpty()) {
+      m_PopupResults.setVisible(false);
+      return;
+    }
+
+    m_ListResults.setVisibleRowCount(Math.min(matches.size(), 10));
+    m_ListResults.setSelectedIndex(0);
+    if (isShowing()) {
+      m_PopupResults.setPopupSize(new Dimension(
+	Math.max(getWidth(), m_PopupResults.getPreferredSize().width),
+	m_PopupResults.getPreferredSize().height));
+      m_PopupResults.show(this, 0, getHeight());
+      requestFocusInWindow();
+    }
+  }
+
+  /**
+   * Moves the selection in the matches.
+   *
+   * @param offset	the offset to move the selection by
+   */
+  protected void move(int offset) {
+    int		index;
+
+    if (!m_PopupResults.isVisible())
+      return;
+    index = m_ListResults.getSelectedIndex() + offset;
+    if ((index < 0) || (index >= m_ListResults.getModel().getSize()))
+      return;
+    m_ListResults.setSelectedIndex(index);
+    m_ListResults.ensureIndexIsVisible(index);
+  }
+
+  /**
+   * Picks the match at the specified position and notifies the listeners.
+   *
+   * @param index	the index of the match
+   */
+  protected void select(int index) {
+    File	dir;
+
+    if ((index < 0) || (index >= m_ListResults.getModel().getSize()))
+      return;
+    dir = m_ListResults.getModel().getElementAt(index);
+    m_PopupResults.setVisible(false);
+    for (DirectorySearchListener l: m_SearchListeners)
+      l.directorySelected(dir);
+  }
+
+  /**
+   * Adds the listener to notify when a directory gets picked.
+   *
+   * @param l		the listener to add
+   */
+  public void addSearchListener(DirectorySearchListener l) {
+    m_SearchListeners.add(l);
+  }
+
+  /**
+   * Removes the listener.
+   *
+   * @param l		the listener to remove
+   */
+  public void removeSearchListener(DirectorySearchListener l) {
+    m_SearchListeners.remove(l);
+  }
+}
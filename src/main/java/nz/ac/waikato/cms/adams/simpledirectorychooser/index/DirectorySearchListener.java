@@ -0,0 +1,24 @@
+/*
+ * DirectorySearchListener.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.index;
+
+import java.io.File;
+
+/**
+ * Interface for classes that get notified when the user picks a directory
+ * from the results of a {@link DirectorySearchField}.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public interface DirectorySearchListener {
+
+  /**
+   * Gets called when the user picked a directory.
+   *
+   * @param dir		the directory
+   */
+  public void directorySelected(File dir);
+}
@@ -0,0 +1,566 @@
+/*
+ * MappedDirectoryIndex.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.index;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Read-only directory index that is memory-mapped from a binary file, i.e.,
+ * opening it does not deserialize the directories. The file consists of
+ * a header and the following sections:
+ * <ul>
+ *   <li>directories in breadth-first order, each with the ID of the parent,
+ *   the ID of its name segment, the ID of the first child, the number of
+ *   children and the modification timestamp; the roots come first and the
+ *   children of a directory are stored next to each other, sorted by name</li>
+ *   <li>the IDs of the directories grouped by name segment</li>
+ *   <li>the sorted, unique name segments (UTF-8)</li>
+ *   <li>the sorted trigrams of the lower case name segments, each with the
+ *   IDs of the segments containing it</li>
+ * </ul>
+ * Use {@link #write(MemoryDirectoryIndex, File)} to create the file.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class MappedDirectoryIndex
+  implements DirectoryIndex {
+
+  /** the magic number ("SDCI"). */
+  public final static int MAGIC = 0x53444349;
+
+  /** the file format version. */
+  public final static int VERSION = 1;
+
+  /** the size of the header in bytes. */
+  public final static int HEADER_SIZE = 32;
+
+  /** the size of a directory entry in bytes. */
+  public final static int ENTRY_SIZE = 24;
+
+  /** the file the index got loaded from. */
+  protected File m_File;
+
+  /** the mapped file. */
+  protected MappedByteBuffer m_Buffer;
+
+  /** the number of directories. */
+  protected int m_Size;
+
+  /** the number of root directories. */
+  protected int m_RootCount;
+
+  /** the number of name segments. */
+  protected int m_SegmentCount;
+
+  /** the number of trigrams. */
+  protected int m_TrigramCount;
+
+  /** the offset of the directories. */
+  protected int m_EntriesOffset;
+
+  /** the offset of the start positions of the segments in the grouped directory IDs. */
+  protected int m_SegmentStartOffset;
+
+  /** the offset of the directory IDs grouped by segment. */
+  protected int m_BySegmentOffset;
+
+  /** the offset of the start positions of the segment strings. */
+  protected int m_StringStartOffset;
+
+  /** the offset of the trigrams. */
+  protected int m_TrigramOffset;
+
+  /** the offset of the start positions of the trigrams in the postings. */
+  protected int m_TrigramStartOffset;
+
+  /** the offset of the postings (segment IDs). */
+  protected int m_PostingsOffset;
+
+  /** the offset of the segment strings. */
+  protected int m_StringsOffset;
+
+  /**
+   * Maps the index file.
+   *
+   * @param file	the file to load
+   * @throws IOException	if failed to read the file or not a valid index
+   */
+  public MappedDirectoryIndex(File file) throws IOException {
+    int		postingCount;
+    int		stringLength;
+
+    m_File = file;
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+      if (raf.length() < HEADER_SIZE)
+	throw new IOException("Not a directory index: " + file);
+      if (raf.length() > Integer.MAX_VALUE)
+	throw new IOException("Directory index too large: " + file);
+      m_Buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+    }
+
+    if (m_Buffer.getInt(0) != MAGIC)
+      throw new IOException("Not a directory index: " + file);
+    if (m_Buffer.getInt(4) != VERSION)
+      throw new IOException("Unsupported directory index version " + m_Buffer.getInt(4) + ": " + file);
+
+    m_Size               = m_Buffer.getInt(8);
+    m_RootCount          = m_Buffer.getInt(12);
+    m_SegmentCount       = m_Buffer.getInt(16);
+    m_TrigramCount       = m_Buffer.getInt(20);
+    postingCount         = m_Buffer.getInt(24);
+    stringLength         = m_Buffer.getInt(28);
+    m_EntriesOffset      = HEADER_SIZE;
+    m_SegmentStartOffset = m_EntriesOffset + m_Size * ENTRY_SIZE;
+    m_BySegmentOffset    = m_SegmentStartOffset + (m_SegmentCount + 1) * 4;
+    m_StringStartOffset  = m_BySegmentOffset + m_Size * 4;
+    m_TrigramOffset      = m_StringStartOffset + (m_SegmentCount + 1) * 4;
+    m_TrigramStartOffset = m_TrigramOffset + m_TrigramCount * 8;
+    m_PostingsOffset     = m_TrigramStartOffset + (m_TrigramCount + 1) * 4;
+    m_StringsOffset      = m_PostingsOffset + postingCount * 4;
+    if (m_StringsOffset + stringLength != m_Buffer.capacity())
+      throw new IOException("Truncated directory index: " + file);
+  }
+
+  /**
+   * Returns the file the index got loaded from.
+   *
+   * @return		the file
+   */
+  public File getFile() {
+    return m_File;
+  }
+
+  /**
+   * Returns the number of directories in the index.
+   *
+   * @return		the number of directories
+   */
+  @Override
+  public int size() {
+    return m_Size;
+  }
+
+  /**
+   * Returns the number of root directories, which have the IDs 0 to
+   * count - 1.
+   *
+   * @return		the number of roots
+   */
+  public int getRootCount() {
+    return m_RootCount;
+  }
+
+  /**
+   * Returns the ID of the parent of the directory.
+   *
+   * @param id		the ID of the directory
+   * @return		the ID of the parent, {@link MemoryDirectoryIndex#NO_PARENT} for roots
+   */
+  public int getParent(int id) {
+    return m_Buffer.getInt(m_EntriesOffset + id * ENTRY_SIZE);
+  }
+
+  /**
+   * Returns the name of the directory.
+   *
+   * @param id		the ID of the directory
+   * @return		the name, the absolute path for roots
+   */
+  public String getName(int id) {
+    return getSegment(m_Buffer.getInt(m_EntriesOffset + id * ENTRY_SIZE + 4));
+  }
+
+  /**
+   * Returns the ID of the first child of the directory.
+   *
+   * @param id		the ID of the directory
+   * @return		the ID of the first child
+   */
+  public int getFirstChild(int id) {
+    return m_Buffer.getInt(m_EntriesOffset + id * ENTRY_SIZE + 8);
+  }
+
+  /**
+   * Returns the number of children of the directory.
+   *
+   * @param id		the ID of the directory
+   * @return		the number of children
+   */
+  public int getChildCount(int id) {
+    return m_Buffer.getInt(m_EntriesOffset + id * ENTRY_SIZE + 12);
+  }
+
+  /**
+   * Returns the modification timestamp of the directory at the time it
+   * got listed.
+   *
+   * @param id		the ID of the directory
+   * @return		the timestamp, 0 if unknown
+   */
+  public long getModified(int id) {
+    return m_Buffer.getLong(m_EntriesOffset + id * ENTRY_SIZE + 16);
+  }
+
+  /**
+   * Returns the ID of the root directory.
+   *
+   * @param dir		the root directory
+   * @return		the ID, -1 if not a root of the index
+   */
+  public int indexOfRoot(File dir) {
+    int		i;
+    String	path;
+
+    path = dir.getAbsolutePath();
+    for (i = 0; i < m_RootCount; i++) {
+      if (getName(i).equals(path))
+	return i;
+    }
+
+    return -1;
+  }
+
+  /**
+   * Decodes the name segment.
+   *
+   * @param segment	the ID of the segment
+   * @return		the segment
+   */
+  protected String getSegment(int segment) {
+    ByteBuffer	buffer;
+    byte[]	bytes;
+    int		start;
+
+    start  = m_Buffer.getInt(m_StringStartOffset + segment * 4);
+    bytes  = new byte[m_Buffer.getInt(m_StringStartOffset + (segment + 1) * 4) - start];
+    buffer = m_Buffer.duplicate();
+    buffer.position(m_StringsOffset + start);
+    buffer.get(bytes);
+
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Returns the directory with the specified ID.
+   *
+   * @param id		the ID of the directory
+   * @return		the directory
+   */
+  public File getFile(int id) {
+    List<String>	names;
+    File		result;
+    int			i;
+
+    names = new ArrayList<>();
+    while (id != MemoryDirectoryIndex.NO_PARENT) {
+      names.add(getName(id));
+      id = getParent(id);
+    }
+    result = new File(names.get(names.size() - 1));
+    for (i = names.size() - 2; i >= 0; i--)
+      result = new File(result, names.get(i));
+
+    return result;
+  }
+
+  /**
+   * Locates the trigram.
+   *
+   * @param key		the trigram to look for
+   * @return		the index of the trigram, -1 if not present
+   */
+  protected int indexOfTrigram(long key) {
+    int		low;
+    int		high;
+    int		mid;
+    long	current;
+
+    low  = 0;
+    high = m_TrigramCount - 1;
+    while (low <= high) {
+      mid     = (low + high) >>> 1;
+      current = m_Buffer.getLong(m_TrigramOffset + mid * 8);
+      if (current < key)
+	low = mid + 1;
+      else if (current > key)
+	high = mid - 1;
+      else
+	return mid;
+    }
+
+    return -1;
+  }
+
+  /**
+   * Searches for directories whose name contains the query (case-insensitive).
+   * Exact matches come first, followed by names starting with the query.
+   *
+   * @param query	the fragment of the name to look for
+   * @param max		the maximum number of directories to return
+   * @return		the matching directories
+   */
+  @Override
+  public List<File> search(String query, int max) {
+    List<File>		result;
+    List<Integer>	exact;
+    List<Integer>	prefix;
+    List<Integer>	other;
+    List<Integer>	list;
+    int			from;
+    int			to;
+    int			index;
+    int			i;
+    int			n;
+    int			segment;
+    int			id;
+    String		name;
+
+    result = new ArrayList<>();
+    query  = query.trim().toLowerCase();
+    if (query.isEmpty() || (max < 1))
+      return result;
+
+    // segments of the rarest trigram or all
+    from = 0;
+    to   = m_SegmentCount;
+    if (query.length() > 2) {
+      to = Integer.MAX_VALUE;
+      for (i = 0; i < query.length() - 2; i++) {
+	index = indexOfTrigram(MemoryDirectoryIndex.trigram(query, i));
+	if (index == -1)
+	  return result;
+	if (m_Buffer.getInt(m_TrigramStartOffset + (index + 1) * 4) - m_Buffer.getInt(m_TrigramStartOffset + index * 4) < to - from) {
+	  from = m_Buffer.getInt(m_TrigramStartOffset + index * 4);
+	  to   = m_Buffer.getInt(m_TrigramStartOffset + (index + 1) * 4);
+	}
+      }
+    }
+
+    exact  = new ArrayList<>();
+    prefix = new ArrayList<>();
+    other  = new ArrayList<>();
+    for (i = from; i < to; i++) {
+      segment = (query.length() > 2) ? m_Buffer.getInt(m_PostingsOffset + i * 4) : i;
+      name    = getSegment(segment).toLowerCase();
+      if (name.equals(query))
+	list = exact;
+      else if (name.startsWith(query))
+	list = prefix;
+      else if ((other.size() < max) && name.contains(query))
+	list = other;
+      else
+	continue;
+      for (n = m_Buffer.getInt(m_SegmentStartOffset + segment * 4); n < m_Buffer.getInt(m_SegmentStartOffset + (segment + 1) * 4); n++) {
+	id = m_Buffer.getInt(m_BySegmentOffset + n * 4);
+	if (getParent(id) != MemoryDirectoryIndex.NO_PARENT)
+	  list.add(id);
+      }
+      if (exact.size() >= max)
+	break;
+      // short queries scan all names, stop once enough good matches
+      if ((query.length() < 3) && (exact.size() + prefix.size() >= max))
+	break;
+    }
+
+    exact.addAll(prefix);
+    exact.addAll(other);
+    for (i = 0; (i < exact.size()) && (i < max); i++)
+      result.add(getFile(exact.get(i)));
+
+    return result;
+  }
+
+  /**
+   * Writes the index to the file. Writes to a temporary file first, which
+   * then replaces the file.
+   *
+   * @param index	the index to write
+   * @param file	the file to write to
+   * @throws IOException	if writing fails
+   */
+  public static void write(MemoryDirectoryIndex index, File file) throws IOException {
+    int				size;
+    int[]			parents;
+    String[]			names;
+    long[]			modified;
+    int[]			order;
+    int[]			newIDs;
+    int[]			firstChild;
+    int[]			childCount;
+    List<List<Integer>>		children;
+    List<Integer>		sorted;
+    String[]			segments;
+    Map<String,Integer>		segmentIDs;
+    int[]			entrySegments;
+    int[]			segmentStart;
+    int[]			bySegment;
+    int[]			fill;
+    int[]			stringStart;
+    byte[][]			strings;
+    boolean[]			searchable;
+    TreeMap<Long,MemoryDirectoryIndex.Postings>	trigrams;
+    int				postingCount;
+    int				rootCount;
+    int				pos;
+    int				i;
+    int				n;
+    int				old;
+    String			lower;
+    File			tmp;
+
+    // snapshot
+    synchronized(index) {
+      size     = index.size();
+      parents  = Arrays.copyOf(index.m_Parents, size);
+      names    = Arrays.copyOf(index.m_Names, size);
+      modified = Arrays.copyOf(index.m_Modified, size);
+    }
+
+    // breadth-first order, children next to each other
+    children = new ArrayList<>();
+    for (i = 0; i < size; i++)
+      children.add(null);
+    order     = new int[size];
+    rootCount = 0;
+    for (i = 0; i < size; i++) {
+      if (parents[i] == MemoryDirectoryIndex.NO_PARENT) {
+	order[rootCount++] = i;
+      }
+      else {
+	if (children.get(parents[i]) == null)
+	  children.set(parents[i], new ArrayList<>());
+	children.get(parents[i]).add(i);
+      }
+    }
+    newIDs     = new int[size];
+    firstChild = new int[size];
+    childCount = new int[size];
+    pos        = rootCount;
+    for (i = 0; i < size; i++) {
+      old           = order[i];
+      newIDs[old]   = i;
+      firstChild[i] = pos;
+      sorted        = children.get(old);
+      if (sorted == null)
+	continue;
+      sorted.sort((Integer o1, Integer o2) -> names[o1].compareTo(names[o2]));
+      childCount[i] = sorted.size();
+      for (Integer child: sorted)
+	order[pos++] = child;
+    }
+
+    // segments
+    segments   = new TreeSet<>(Arrays.asList(names)).toArray(new String[0]);
+    segmentIDs = new HashMap<>();
+    for (i = 0; i < segments.length; i++)
+      segmentIDs.put(segments[i], i);
+    entrySegments = new int[size];
+    segmentStart  = new int[segments.length + 1];
+    searchable    = new boolean[segments.length];
+    for (i = 0; i < size; i++) {
+      entrySegments[i] = segmentIDs.get(names[order[i]]);
+      segmentStart[entrySegments[i] + 1]++;
+      if (parents[order[i]] != MemoryDirectoryIndex.NO_PARENT)
+	searchable[entrySegments[i]] = true;
+    }
+    for (i = 0; i < segments.length; i++)
+      segmentStart[i + 1] += segmentStart[i];
+    bySegment = new int[size];
+    fill      = Arrays.copyOf(segmentStart, segments.length);
+    for (i = 0; i < size; i++)
+      bySegment[fill[entrySegments[i]]++] = i;
+
+    // strings and trigrams
+    strings     = new byte[segments.length][];
+    stringStart = new int[segments.length + 1];
+    trigrams    = new TreeMap<>();
+    for (i = 0; i < segments.length; i++) {
+      strings[i]         = segments[i].getBytes(StandardCharsets.UTF_8);
+      stringStart[i + 1] = stringStart[i] + strings[i].length;
+      if (!searchable[i])
+	continue;
+      lower = segments[i].toLowerCase();
+      for (n = 0; n < lower.length() - 2; n++)
+	trigrams.computeIfAbsent(MemoryDirectoryIndex.trigram(lower, n), (Long k) -> new MemoryDirectoryIndex.Postings()).add(i);
+    }
+    postingCount = 0;
+    for (MemoryDirectoryIndex.Postings postings: trigrams.values())
+      postingCount += postings.size;
+
+    tmp = new File(file.getAbsolutePath() + ".tmp");
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(size);
+      out.writeInt(rootCount);
+      out.writeInt(segments.length);
+      out.writeInt(trigrams.size());
+      out.writeInt(postingCount);
+      out.writeInt(stringStart[segments.length]);
+      for (i = 0; i < size; i++) {
+	old = order[i];
+	out.writeInt((parents[old] == MemoryDirectoryIndex.NO_PARENT) ? MemoryDirectoryIndex.NO_PARENT : newIDs[parents[old]]);
+	out.writeInt(entrySegments[i]);
+	out.writeInt(firstChild[i]);
+	out.writeInt(childCount[i]);
+	out.writeLong(modified[old]);
+      }
+      for (int value: segmentStart)
+	out.writeInt(value);
+      for (int value: bySegment)
+	out.writeInt(value);
+      for (int value: stringStart)
+	out.writeInt(value);
+      for (Long key: trigrams.keySet())
+	out.writeLong(key);
+      pos = 0;
+      out.writeInt(pos);
+      for (MemoryDirectoryIndex.Postings postings: trigrams.values()) {
+	pos += postings.size;
+	out.writeInt(pos);
+      }
+      for (MemoryDirectoryIndex.Postings postings: trigrams.values()) {
+	for (i = 0; i < postings.size; i++)
+	  out.writeInt(postings.ids[i]);
+      }
+      for (byte[] bytes: strings)
+	out.write(bytes);
+    }
+
+    try {
+      try {
+	Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+      catch (AtomicMoveNotSupportedException e) {
+	Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    }
+    catch (IOException e) {
+      // e.g., the file is still mapped on Windows
+      Files.deleteIfExists(tmp.toPath());
+      throw e;
+    }
+  }
+}
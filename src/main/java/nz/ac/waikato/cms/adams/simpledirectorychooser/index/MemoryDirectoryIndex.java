@@ -0,0 +1,390 @@
+/*
+ * MemoryDirectoryIndex.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.index;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory index of directory names. Directories are stored as name plus
+ * the ID of the parent directory, roots with their absolute path as name.
+ * For each trigram of the lower case names, a sorted list of the IDs of
+ * the directories containing it is kept. Queries with at least three
+ * characters only verify the directories of their rarest trigram, shorter
+ * ones check all names.
+ * <br>
+ * Each {@link #clear()} starts a new epoch. Adding directories with the
+ * epoch they were obtained in fails once the index got cleared, so that
+ * background tasks of an earlier crawl cannot mix their IDs into the
+ * current one.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class MemoryDirectoryIndex
+  implements DirectoryIndex {
+
+  /** the ID of the parent of root directories. */
+  public final static int NO_PARENT = -1;
+
+  /** the ID returned for directories added with an outdated epoch. */
+  public final static int STALE = -2;
+
+  /** the initial capacity. */
+  public final static int INITIAL_CAPACITY = 1024;
+
+  /**
+   * Sorted list of IDs of directories.
+   */
+  protected static class Postings {
+
+    /** the IDs. */
+    public int[] ids = new int[4];
+
+    /** the number of IDs. */
+    public int size;
+
+    /**
+     * Appends the ID, if not already the last one.
+     *
+     * @param id	the ID to add
+     */
+    public void add(int id) {
+      if ((size > 0) && (ids[size - 1] == id))
+	return;
+      if (size == ids.length)
+	ids = Arrays.copyOf(ids, size * 2);
+      ids[size++] = id;
+    }
+  }
+
+  /** the IDs of the parents. */
+  protected int[] m_Parents;
+
+  /** the names. */
+  protected String[] m_Names;
+
+  /** the lower case names (same instance if already lower case). */
+  protected String[] m_LowerNames;
+
+  /** the modification timestamps of the directories (0 if unknown). */
+  protected long[] m_Modified;
+
+  /** the number of directories. */
+  protected int m_Size;
+
+  /** the postings per trigram. */
+  protected Map<Long, Postings> m_Trigrams;
+
+  /** the epoch, gets incremented with each clear. */
+  protected int m_Epoch;
+
+  /**
+   * Initializes the index.
+   */
+  public MemoryDirectoryIndex() {
+    clear();
+  }
+
+  /**
+   * Removes all directories and starts a new epoch.
+   */
+  public synchronized void clear() {
+    m_Epoch++;
+    m_Parents    = new int[INITIAL_CAPACITY];
+    m_Names      = new String[INITIAL_CAPACITY];
+    m_LowerNames = new String[INITIAL_CAPACITY];
+    m_Modified   = new long[INITIAL_CAPACITY];
+    m_Size       = 0;
+    m_Trigrams   = new HashMap<>();
+  }
+
+  /**
+   * Returns the current epoch, which changes with each {@link #clear()}.
+   *
+   * @return		the epoch
+   */
+  public synchronized int getEpoch() {
+    return m_Epoch;
+  }
+
+  /**
+   * Returns the key for the trigram starting at the specified position.
+   *
+   * @param s		the string to get the trigram from
+   * @param pos		the start of the trigram
+   * @return		the key
+   */
+  protected static long trigram(String s, int pos) {
+    return ((long) s.charAt(pos) << 32) | ((long) s.charAt(pos + 1) << 16) | s.charAt(pos + 2);
+  }
+
+  /**
+   * Adds a root directory.
+   *
+   * @param dir		the root directory
+   * @return		the ID of the directory
+   */
+  public synchronized int addRoot(File dir) {
+    return addRoot(m_Epoch, dir);
+  }
+
+  /**
+   * Adds a root directory, if the index hasn't been cleared since the
+   * specified epoch.
+   *
+   * @param epoch	the epoch the directory belongs to
+   * @param dir		the root directory
+   * @return		the ID of the directory, {@link #STALE} if the epoch is outdated
+   */
+  public int addRoot(int epoch, File dir) {
+    return add(epoch, NO_PARENT, dir.getAbsolutePath());
+  }
+
+  /**
+   * Adds a directory.
+   *
+   * @param parent	the ID of the parent, {@link #NO_PARENT} for roots
+   * @param name	the name of the directory, the absolute path for roots
+   * @return		the ID of the directory
+   */
+  public synchronized int add(int parent, String name) {
+    return add(m_Epoch, parent, name);
+  }
+
+  /**
+   * Adds a directory, if the index hasn't been cleared since the specified
+   * epoch.
+   *
+   * @param epoch	the epoch the parent ID belongs to
+   * @param parent	the ID of the parent, {@link #NO_PARENT} for roots
+   * @param name	the name of the directory, the absolute path for roots
+   * @return		the ID of the directory, {@link #STALE} if the epoch is outdated
+   */
+  public synchronized int add(int epoch, int parent, String name) {
+    int		result;
+    String	lower;
+    int		i;
+
+    if (epoch != m_Epoch)
+      return STALE;
+
+    if (m_Size == m_Parents.length) {
+      m_Parents    = Arrays.copyOf(m_Parents, m_Size * 2);
+      m_Names      = Arrays.copyOf(m_Names, m_Size * 2);
+      m_LowerNames = Arrays.copyOf(m_LowerNames, m_Size * 2);
+      m_Modified   = Arrays.copyOf(m_Modified, m_Size * 2);
+    }
+
+    result  = m_Size++;
+    lower   = name.toLowerCase();
+    m_Parents[result]    = parent;
+    m_Names[result]      = name;
+    m_LowerNames[result] = lower;
+
+    if (parent != NO_PARENT) {
+      for (i = 0; i < lower.length() - 2; i++)
+	m_Trigrams.computeIfAbsent(trigram(lower, i), (Long k) -> new Postings()).add(result);
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the number of directories in the index.
+   *
+   * @return		the number of directories
+   */
+  @Override
+  public synchronized int size() {
+    return m_Size;
+  }
+
+  /**
+   * Returns the ID of the parent of the directory.
+   *
+   * @param id		the ID of the directory
+   * @return		the ID of the parent, {@link #NO_PARENT} for roots
+   */
+  public synchronized int getParent(int id) {
+    return m_Parents[id];
+  }
+
+  /**
+   * Returns the name of the directory.
+   *
+   * @param id		the ID of the directory
+   * @return		the name, the absolute path for roots
+   */
+  public synchronized String getName(int id) {
+    return m_Names[id];
+  }
+
+  /**
+   * Sets the modification timestamp of the directory.
+   *
+   * @param id		the ID of the directory
+   * @param modified	the timestamp
+   */
+  public synchronized void setModified(int id, long modified) {
+    setModified(m_Epoch, id, modified);
+  }
+
+  /**
+   * Sets the modification timestamp of the directory, if the index hasn't
+   * been cleared since the specified epoch.
+   *
+   * @param epoch	the epoch the ID belongs to
+   * @param id		the ID of the directory
+   * @param modified	the timestamp
+   * @return		false if the epoch is outdated
+   */
+  public synchronized boolean setModified(int epoch, int id, long modified) {
+    if (epoch != m_Epoch)
+      return false;
+    m_Modified[id] = modified;
+    return true;
+  }
+
+  /**
+   * Returns the modification timestamp of the directory.
+   *
+   * @param id		the ID of the directory
+   * @return		the timestamp, 0 if unknown
+   */
+  public synchronized long getModified(int id) {
+    return m_Modified[id];
+  }
+
+  /**
+   * Returns the directory with the specified ID.
+   *
+   * @param id		the ID of the directory
+   * @return		the directory
+   */
+  public synchronized File getFile(int id) {
+    return getFile(m_Parents, m_Names, id);
+  }
+
+  /**
+   * Returns the directory with the specified ID.
+   *
+   * @param parents	the IDs of the parents
+   * @param names	the names
+   * @param id		the ID of the directory
+   * @return		the directory
+   */
+  protected static File getFile(int[] parents, String[] names, int id) {
+    if (parents[id] == NO_PARENT)
+      return new File(names[id]);
+    else
+      return new File(getFile(parents, names, parents[id]), names[id]);
+  }
+
+  /**
+   * Returns the postings of the rarest trigram of the query.
+   *
+   * @param query	the lower case query, at least three characters
+   * @return		the postings, null if one of the trigrams does not occur
+   */
+  protected Postings rarestTrigram(String query) {
+    Postings	result;
+    Postings	postings;
+    int		i;
+
+    result = null;
+    for (i = 0; i < query.length() - 2; i++) {
+      postings = m_Trigrams.get(trigram(query, i));
+      if (postings == null)
+	return null;
+      if ((result == null) || (postings.size < result.size))
+	result = postings;
+    }
+
+    return result;
+  }
+
+  /**
+   * Searches for directories whose name contains the query (case-insensitive).
+   * Exact matches come first, followed by names starting with the query.
+   * The names get scanned without holding the lock, so that directories can
+   * be added concurrently; directories added during the search are ignored.
+   *
+   * @param query	the fragment of the name to look for
+   * @param max		the maximum number of directories to return
+   * @return		the matching directories
+   */
+  @Override
+  public List<File> search(String query, int max) {
+    List<File>		result;
+    List<Integer>	exact;
+    List<Integer>	prefix;
+    List<Integer>	other;
+    Postings		postings;
+    int[]		ids;
+    int[]		parents;
+    String[]		names;
+    String[]		lowerNames;
+    int			count;
+    int			i;
+    int			id;
+    String		name;
+
+    result = new ArrayList<>();
+    query  = query.trim().toLowerCase();
+    if (query.isEmpty() || (max < 1))
+      return result;
+
+    // adding only replaces the arrays with larger copies and clearing with
+    // new ones, the entries below the current size of these instances
+    // don't change
+    synchronized(this) {
+      parents    = m_Parents;
+      names      = m_Names;
+      lowerNames = m_LowerNames;
+      ids        = null;
+      count      = m_Size;
+      if (query.length() > 2) {
+	postings = rarestTrigram(query);
+	if (postings == null)
+	  return result;
+	ids   = postings.ids;
+	count = postings.size;
+      }
+    }
+
+    exact  = new ArrayList<>();
+    prefix = new ArrayList<>();
+    other  = new ArrayList<>();
+    for (i = 0; i < count; i++) {
+      id = (ids == null) ? i : ids[i];
+      if (parents[id] == NO_PARENT)
+	continue;
+      name = lowerNames[id];
+      if (name.equals(query))
+	exact.add(id);
+      else if (name.startsWith(query))
+	prefix.add(id);
+      else if ((other.size() < max) && name.contains(query))
+	other.add(id);
+      if (exact.size() >= max)
+	break;
+      // short queries scan all names, stop once enough good matches
+      if ((ids == null) && (exact.size() + prefix.size() >= max))
+	break;
+    }
+
+    exact.addAll(prefix);
+    exact.addAll(other);
+    for (i = 0; (i < exact.size()) && (i < max); i++)
+      result.add(getFile(parents, names, exact.get(i)));
+
+    return result;
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * PersistentDirectoryIndex.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Directory index that gets persisted to a file between sessions. Opening
+ * it memory-maps the index of the last session (if available), which can
+ * be searched right away, and validates it in the background: a crawl
+ * re-lists only the directories whose modification timestamp has changed.
+ * Once the crawl has finished, searches use the updated index, which also
+ * gets written back to the file.
+ * <br>
+ * If the file cannot be replaced (e.g., on Windows while the previous
+ * mapping hasn't been released yet), the index gets written to a pending
+ * file next to it instead, which replaces the file the next time the index
+ * gets opened.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class PersistentDirectoryIndex
+  implements DirectoryIndex, DirectoryCrawlListener {
+
+  /** the extension for the pending file. */
+  public final static String PENDING_EXTENSION = ".pending";
+
+  /** the file to persist the index in. */
+  protected File m_File;
+
+  /** the crawler for validating/building the index. */
+  protected DirectoryCrawler m_Crawler;
+
+  /** the index of the last session, null if not available. */
+  protected MappedDirectoryIndex m_Mapped;
+
+  /** the index to use for searching. */
+  protected volatile DirectoryIndex m_Current;
+
+  /**
+   * Initializes the index.
+   *
+   * @param file	the file to persist the index in
+   * @param roots	the root directories to index
+   */
+  public PersistentDirectoryIndex(File file, File... roots) {
+    m_File    = file;
+    m_Crawler = new DirectoryCrawler(new MemoryDirectoryIndex(), roots);
+    m_Crawler.addCrawlListener(this);
+    m_Mapped  = null;
+    m_Current = m_Crawler.getIndex();
+  }
+
+  /**
+   * Returns the file the index gets persisted in.
+   *
+   * @return		the file
+   */
+  public File getFile() {
+    return m_File;
+  }
+
+  /**
+   * Returns the file the index gets written to if the file itself cannot
+   * be replaced.
+   *
+   * @return		the pending file
+   */
+  public File getPendingFile() {
+    return new File(m_File.getPath() + PENDING_EXTENSION);
+  }
+
+  /**
+   * Determines the file to map: replaces the file with the pending one, if
+   * that is newer. If the file cannot be replaced, the pending file gets
+   * used instead.
+   *
+   * @return		the file to map, null if none available
+   */
+  protected File determineFile() {
+    File	pending;
+
+    pending = getPendingFile();
+    if (pending.exists() && (!m_File.exists() || (pending.lastModified() >= m_File.lastModified()))) {
+      try {
+	Files.move(pending.toPath(), m_File.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+      catch (IOException e) {
+	System.err.println("Failed to replace directory index " + m_File + " with " + pending);
+	e.printStackTrace();
+	return pending;
+      }
+    }
+
+    return m_File.exists() ? m_File : null;
+  }
+
+  /**
+   * Returns the crawler, e.g., for throttling it.
+   *
+   * @return		the crawler
+   */
+  public DirectoryCrawler getCrawler() {
+    return m_Crawler;
+  }
+
+  /**
+   * Maps the index of the last session, if available, and starts
+   * validating it in the background.
+   */
+  public synchronized void open() {
+    File	file;
+
+    if (m_Crawler.isRunning())
+      return;
+
+    m_Mapped = null;
+    file     = determineFile();
+    if (file != null) {
+      try {
+	m_Mapped = new MappedDirectoryIndex(file);
+      }
+      catch (IOException e) {
+	System.err.println("Failed to load directory index: " + file);
+	e.printStackTrace();
+      }
+    }
+    m_Current = (m_Mapped != null) ? m_Mapped : m_Crawler.getIndex();
+    m_Crawler.setPrevious(m_Mapped);
+    m_Crawler.start();
+  }
+
+  /**
+   * Stops the validation, if still running. Searches continue to use the
+   * index of the last session, if available.
+   */
+  public void close() {
+    m_Crawler.stop();
+  }
+
+  /**
+   * Returns whether the index is still getting validated/built.
+   *
+   * @return		true if still crawling
+   */
+  public boolean isValidating() {
+    return m_Crawler.isRunning();
+  }
+
+  /**
+   * Switches to the updated index, releases the index of the last session
+   * and writes the updated index to the file (or the pending file, if the
+   * file cannot be replaced).
+   *
+   * @param crawler	the crawler that finished
+   */
+  @Override
+  public synchronized void crawlFinished(DirectoryCrawler crawler) {
+    File	pending;
+
+    m_Current = m_Crawler.getIndex();
+    m_Mapped  = null;
+    m_Crawler.setPrevious(null);
+
+    pending = getPendingFile();
+    try {
+      m_File.getAbsoluteFile().getParentFile().mkdirs();
+      MappedDirectoryIndex.write(m_Crawler.getIndex(), m_File);
+      if (pending.exists() && !pending.delete())
+	pending.deleteOnExit();
+    }
+    catch (IOException e) {
+      try {
+	MappedDirectoryIndex.write(m_Crawler.getIndex(), pending);
+      }
+      catch (IOException e2) {
+	System.err.println("Failed to write directory index: " + m_File);
+	e2.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Returns the number of directories in the index.
+   *
+   * @return		the number of directories
+   */
+  @Override
+  public int size() {
+    return m_Current.size();
+  }
+
+  /**
+   * Searches for directories whose name contains the query (case-insensitive).
+   * Exact matches come first, followed by names starting with the query.
+   *
+   * @param query	the fragment of the name to look for
+   * @param max		the maximum number of directories to return
+   * @return		the matching directories
+   */
+  @Override
+  public List<File> search(String query, int max) {
+    return m_Current.search(query, max);
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * AbstractDirectoryScanner.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.scan;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ancestor for scanners, collects the streamed sub-directories in a list.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public abstract class AbstractDirectoryScanner
+  implements DirectoryScanner {
+
+  /**
+   * Lists the sub-directories of the specified directory.
+   *
+   * @param dir		the directory to scan
+   * @param showHidden	whether to include hidden directories
+   * @return		the sub-directories (unsorted), empty if none or failed to list
+   */
+  @Override
+  public List<File> scan(File dir, boolean showHidden) {
+    final List<File>	result;
+
+    result = new ArrayList<>();
+    scan(dir, showHidden, (File d) -> result.add(d));
+
+    return result;
+  }
+}
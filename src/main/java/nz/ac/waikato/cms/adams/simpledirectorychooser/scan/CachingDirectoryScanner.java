@@ -0,0 +1,119 @@
+/*
+ * CachingDirectoryScanner.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.scan;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serves listings from a {@link DirectoryListingCache} and lists the
+ * directory with the base scanner otherwise, caching the result if the
+ * scan was neither stopped nor failed. A cached listing only costs reading the
+ * modification time of the directory.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CachingDirectoryScanner
+  extends AbstractDirectoryScanner {
+
+  /** the scanner for listing directories that aren't cached. */
+  protected DirectoryScanner m_Base;
+
+  /** the cache to use. */
+  protected DirectoryListingCache m_Cache;
+
+  /**
+   * Initializes the scanner with a {@link FileDirectoryScanner} and the
+   * shared cache.
+   *
+   * @see DirectoryListingCache#getDefault()
+   */
+  public CachingDirectoryScanner() {
+    this(new FileDirectoryScanner(), DirectoryListingCache.getDefault());
+  }
+
+  /**
+   * Initializes the scanner.
+   *
+   * @param base	the scanner for listing directories that aren't cached
+   * @param cache	the cache to use
+   */
+  public CachingDirectoryScanner(DirectoryScanner base, DirectoryListingCache cache) {
+    if (base == null)
+      throw new IllegalArgumentException("Base scanner cannot be null!");
+    if (cache == null)
+      throw new IllegalArgumentException("Cache cannot be null!");
+    m_Base  = base;
+    m_Cache = cache;
+  }
+
+  /**
+   * Returns the scanner for listing directories that aren't cached.
+   *
+   * @return		the scanner
+   */
+  public DirectoryScanner getBase() {
+    return m_Base;
+  }
+
+  /**
+   * Returns the cache in use.
+   *
+   * @return		the cache
+   */
+  public DirectoryListingCache getCache() {
+    return m_Cache;
+  }
+
+  /**
+   * Scans the specified directory and streams the sub-directories to the
+   * listener as they are encountered.
+   *
+   * @param dir		the directory to scan
+   * @param showHidden	whether to include hidden directories
+   * @param listener	the listener to notify, can stop the scan
+   */
+  @Override
+  public void scan(File dir, boolean showHidden, DirectoryScanListener listener) {
+    File[]		cached;
+    final List<File>	dirs;
+    final boolean[]	stopped;
+    final boolean[]	failed;
+    long		modified;
+    long		timestamp;
+
+    cached = m_Cache.get(dir, showHidden);
+    if (cached != null) {
+      for (File d: cached) {
+	if (!listener.directoryFound(d))
+	  break;
+      }
+      return;
+    }
+
+    modified  = dir.lastModified();
+    timestamp = System.currentTimeMillis();
+    dirs      = new ArrayList<>();
+    stopped   = new boolean[]{false};
+    failed    = new boolean[]{false};
+    m_Base.scan(dir, showHidden, new DirectoryScanListener() {
+      @Override
+      public boolean directoryFound(File d) {
+	dirs.add(d);
+	stopped[0] = !listener.directoryFound(d);
+	return !stopped[0];
+      }
+      @Override
+      public void scanFailed(File d) {
+	failed[0] = true;
+	listener.scanFailed(d);
+      }
+    });
+    if (!stopped[0] && !failed[0])
+      m_Cache.put(dir, showHidden, modified, timestamp, dirs.toArray(new File[0]));
+  }
+}
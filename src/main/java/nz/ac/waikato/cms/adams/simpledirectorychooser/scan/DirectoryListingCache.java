@@ -0,0 +1,237 @@
+/*
+ * DirectoryListingCache.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.scan;
+
+import nz.ac.waikato.cms.adams.simpledirectorychooser.core.AbstractLRUCache;
+
+import java.io.File;
+
+/**
+ * Thread-safe LRU cache for directory listings, bounded by number of
+ * listings and by the total number of sub-directories. A listing is only
+ * returned while the modification time of the directory is unchanged and
+ * the listing is not older than the maximum age. Listings of directories
+ * that were modified just before getting listed are not cached, as further
+ * changes might not alter the modification time due to its granularity.
+ * Keeps track of hits, misses and evictions.
+ * <br>
+ * {@link #getDefault()} returns the cache that is shared within the process.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class DirectoryListingCache
+  extends AbstractLRUCache<String, DirectoryListingCache.Entry> {
+
+  /** the default maximum number of listings. */
+  public final static int DEFAULT_MAX_ENTRIES = 2000;
+
+  /** the default maximum number of sub-directories across all listings. */
+  public final static int DEFAULT_MAX_DIRECTORIES = 100000;
+
+  /** the default maximum age of listings in msec. */
+  public final static long DEFAULT_MAX_AGE = 5 * 60 * 1000;
+
+  /** the granularity of modification times to assume in msec. */
+  public final static long MODIFIED_GRANULARITY = 2000;
+
+  /**
+   * Container for a cached listing.
+   */
+  protected static class Entry {
+
+    /** the sub-directories. */
+    public File[] dirs;
+
+    /** the modification time of the directory. */
+    public long modified;
+
+    /** the time of the listing. */
+    public long timestamp;
+  }
+
+  /** the shared cache. */
+  protected static DirectoryListingCache m_Default;
+
+  /** the maximum age of listings in msec, -1 for unlimited. */
+  protected long m_MaxAge;
+
+  /**
+   * Initializes the cache with the default limits.
+   */
+  public DirectoryListingCache() {
+    this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_DIRECTORIES, DEFAULT_MAX_AGE);
+  }
+
+  /**
+   * Initializes the cache.
+   *
+   * @param maxEntries		the maximum number of listings, -1 for unlimited
+   * @param maxDirectories	the maximum number of sub-directories, -1 for unlimited
+   * @param maxAge		the maximum age of listings in msec, -1 for unlimited
+   */
+  public DirectoryListingCache(int maxEntries, int maxDirectories, long maxAge) {
+    super(maxEntries, maxDirectories);
+    m_MaxAge = maxAge;
+  }
+
+  /**
+   * Returns the weight of the listing, i.e., the number of sub-directories.
+   *
+   * @param entry	the listing to weigh
+   * @return		the weight
+   */
+  @Override
+  protected long weigh(Entry entry) {
+    return entry.dirs.length;
+  }
+
+  /**
+   * Generates the key for the listing.
+   *
+   * @param dir		the directory
+   * @param showHidden	whether hidden directories are included
+   * @return		the key
+   */
+  protected String key(File dir, boolean showHidden) {
+    return (showHidden ? "1" : "0") + dir.getAbsolutePath();
+  }
+
+  /**
+   * Returns the cached listing. The modification time of the directory
+   * gets checked outside the lock, as it can be slow on network drives.
+   *
+   * @param dir		the directory to get the listing for
+   * @param showHidden	whether hidden directories are included
+   * @return		the sub-directories, null if not cached or outdated
+   */
+  public File[] get(File dir, boolean showHidden) {
+    String	key;
+    Entry	entry;
+    long	maxAge;
+
+    key = key(dir, showHidden);
+    synchronized(this) {
+      entry  = lookup(key);
+      maxAge = m_MaxAge;
+      if (entry == null) {
+	recordMiss();
+	return null;
+      }
+    }
+
+    if (((maxAge > -1) && (System.currentTimeMillis() - entry.timestamp > maxAge))
+      || (dir.lastModified() != entry.modified)) {
+      synchronized(this) {
+	discard(key, entry);
+	recordMiss();
+      }
+      return null;
+    }
+
+    recordHit();
+    return entry.dirs;
+  }
+
+  /**
+   * Adds the listing to the cache, evicting least recently used ones if
+   * necessary. Does nothing if the directory was modified too recently
+   * for its modification time to be reliable.
+   *
+   * @param dir		the directory that was listed
+   * @param showHidden	whether hidden directories are included
+   * @param modified	the modification time of the directory before listing it
+   * @param timestamp	the time the directory was listed
+   * @param dirs	the sub-directories
+   */
+  public synchronized void put(File dir, boolean showHidden, long modified, long timestamp, File[] dirs) {
+    Entry	entry;
+
+    if ((modified == 0) || (timestamp - modified < MODIFIED_GRANULARITY))
+      return;
+
+    entry           = new Entry();
+    entry.dirs      = dirs;
+    entry.modified  = modified;
+    entry.timestamp = timestamp;
+    store(key(dir, showHidden), entry);
+  }
+
+  /**
+   * Removes the listings of the directory.
+   *
+   * @param dir		the directory to remove
+   */
+  public synchronized void invalidate(File dir) {
+    for (boolean showHidden: new boolean[]{false, true})
+      remove(key(dir, showHidden));
+  }
+
+  /**
+   * Sets the maximum number of sub-directories across all listings.
+   *
+   * @param value	the maximum, -1 for unlimited
+   */
+  public synchronized void setMaxDirectories(int value) {
+    setMaxWeight(value);
+  }
+
+  /**
+   * Returns the maximum number of sub-directories across all listings.
+   *
+   * @return		the maximum, -1 for unlimited
+   */
+  public synchronized int getMaxDirectories() {
+    return (int) getMaxWeight();
+  }
+
+  /**
+   * Sets the maximum age of listings.
+   *
+   * @param value	the maximum age in msec, -1 for unlimited
+   */
+  public synchronized void setMaxAge(long value) {
+    m_MaxAge = value;
+  }
+
+  /**
+   * Returns the maximum age of listings.
+   *
+   * @return		the maximum age in msec, -1 for unlimited
+   */
+  public synchronized long getMaxAge() {
+    return m_MaxAge;
+  }
+
+  /**
+   * Returns the number of sub-directories across all listings.
+   *
+   * @return		the number of sub-directories
+   */
+  public synchronized int getDirectoryCount() {
+    return (int) getWeight();
+  }
+
+  /**
+   * Returns a short description of the state of the cache.
+   *
+   * @return		the description
+   */
+  @Override
+  public synchronized String toString() {
+    return "size=" + size() + ", directories=" + m_Weight + ", hits=" + m_Hits + ", misses=" + m_Misses + ", evictions=" + m_Evictions;
+  }
+
+  /**
+   * Returns the cache that is shared within the process.
+   *
+   * @return		the cache
+   */
+  public static synchronized DirectoryListingCache getDefault() {
+    if (m_Default == null)
+      m_Default = new DirectoryListingCache();
+    return m_Default;
+  }
+}
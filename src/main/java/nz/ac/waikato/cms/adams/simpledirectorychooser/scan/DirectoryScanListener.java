@@ -0,0 +1,34 @@
+/*
+ * DirectoryScanListener.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.scan;
+
+import java.io.File;
+
+/**
+ * Interface for classes that get notified about sub-directories while a
+ * directory is being scanned.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public interface DirectoryScanListener {
+
+  /**
+   * Gets called whenever a sub-directory has been found.
+   *
+   * @param dir		the sub-directory
+   * @return		true if to continue scanning, false to stop
+   */
+  public boolean directoryFound(File dir);
+
+  /**
+   * Gets called if the directory could not be listed (completely), e.g.,
+   * due to missing permissions. Does nothing by default.
+   *
+   * @param dir		the directory that failed to get listed
+   */
+  public default void scanFailed(File dir) {
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * DirectoryScanner.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.scan;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Interface for classes that list the sub-directories of a directory.
+ * Implementations must be thread-safe, as they can get called from
+ * background threads.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public interface DirectoryScanner {
+
+  /**
+   * Lists the sub-directories of the specified directory.
+   *
+   * @param dir		the directory to scan
+   * @param showHidden	whether to include hidden directories
+   * @return		the sub-directories (unsorted), empty if none or failed to list
+   */
+  public List<File> scan(File dir, boolean showHidden);
+
+  /**
+   * Scans the specified directory and streams the sub-directories to the
+   * listener as they are encountered. If the directory cannot be listed,
+   * the listener gets notified via {@link DirectoryScanListener#scanFailed(File)}.
+   *
+   * @param dir		the directory to scan
+   * @param showHidden	whether to include hidden directories
+   * @param listener	the listener to notify, can stop the scan
+   */
+  public void scan(File dir, boolean showHidden, DirectoryScanListener listener);
+}
@@ -0,0 +1,46 @@
+/*
+ * FileDirectoryScanner.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.scan;
+
+import java.io.File;
+
+/**
+ * Uses {@link File#listFiles()}, {@link File#isDirectory()} and
+ * {@link File#isHidden()} for listing the sub-directories.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class FileDirectoryScanner
+  extends AbstractDirectoryScanner {
+
+  /**
+   * Scans the specified directory and streams the sub-directories to the
+   * listener as they are encountered.
+   *
+   * @param dir		the directory to scan
+   * @param showHidden	whether to include hidden directories
+   * @param listener	the listener to notify, can stop the scan
+   */
+  @Override
+  public void scan(File dir, boolean showHidden, DirectoryScanListener listener) {
+    File[]	files;
+
+    files = dir.listFiles();
+    if (files == null) {
+      listener.scanFailed(dir);
+      return;
+    }
+
+    for (File f: files) {
+      if (f.isDirectory()) {
+	if (!showHidden && f.isHidden())
+	  continue;
+	if (!listener.directoryFound(f))
+	  break;
+      }
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * NioDirectoryScanner.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.scan;
+
+import nz.ac.waikato.cms.adams.simpledirectorychooser.core.OS;
+
+import java.io.File;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
+
+/**
+ * Uses {@link Files#newDirectoryStream(Path)} for listing the entries and
+ * a single attribute read per entry for determining type and hidden state.
+ * On Windows, {@link DosFileAttributes} are used for the hidden flag,
+ * otherwise entries starting with a dot are considered hidden (like
+ * {@link File#isHidden()} does). Symbolic links get resolved, so that links
+ * to directories get listed like with {@link FileDirectoryScanner}.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class NioDirectoryScanner
+  extends AbstractDirectoryScanner {
+
+  /**
+   * Scans the specified directory and streams the sub-directories to the
+   * listener as they are encountered.
+   *
+   * @param dir		the directory to scan
+   * @param showHidden	whether to include hidden directories
+   * @param listener	the listener to notify, can stop the scan
+   */
+  @Override
+  public void scan(File dir, boolean showHidden, DirectoryScanListener listener) {
+    BasicFileAttributes		attrs;
+    boolean			dos;
+    boolean			isDir;
+    boolean			hidden;
+
+    dos = OS.isWindows();
+
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir.toPath())) {
+      for (Path path: stream) {
+	try {
+	  if (dos) {
+	    attrs  = Files.readAttributes(path, DosFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+	    hidden = ((DosFileAttributes) attrs).isHidden();
+	  }
+	  else {
+	    attrs  = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+	    hidden = path.getFileName().toString().startsWith(".");
+	  }
+	  isDir = attrs.isDirectory();
+	  if (attrs.isSymbolicLink())
+	    isDir = Files.isDirectory(path);
+	}
+	catch (Exception e) {
+	  // entry vanished or inaccessible
+	  continue;
+	}
+	if (!isDir)
+	  continue;
+	if (!showHidden && hidden)
+	  continue;
+	if (!listener.directoryFound(path.toFile()))
+	  break;
+      }
+    }
+    catch (Exception e) {
+      // not readable, stop here
+      listener.scanFailed(dir);
+    }
+  }
+}
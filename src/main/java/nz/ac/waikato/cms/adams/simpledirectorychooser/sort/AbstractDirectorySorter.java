@@ -0,0 +1,151 @@
+/*
+ * AbstractDirectorySorter.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.sort;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ancestor for sorters that compute the sort key of each directory only
+ * once per sort, rather than for every comparison. Names that are equal
+ * with respect to the keys get ordered by their case-sensitive name.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ * @param <K>	the type of sort key
+ */
+public abstract class AbstractDirectorySorter<K>
+  implements DirectorySorter {
+
+  /**
+   * Container for a directory and its sort key.
+   *
+   * @param <K>	the type of sort key
+   */
+  protected static class Entry<K> {
+
+    /** the directory. */
+    public final File directory;
+
+    /** the name of the directory. */
+    public final String name;
+
+    /** the sort key. */
+    public final K key;
+
+    /**
+     * Initializes the entry.
+     *
+     * @param directory	the directory
+     * @param name	the name of the directory
+     * @param key	the sort key
+     */
+    public Entry(File directory, String name, K key) {
+      this.directory = directory;
+      this.name      = name;
+      this.key       = key;
+    }
+  }
+
+  /**
+   * Computes the sort key for the name.
+   *
+   * @param name	the name of the directory
+   * @return		the key
+   */
+  protected abstract K createKey(String name);
+
+  /**
+   * Compares the sort keys.
+   *
+   * @param key1	the first key
+   * @param key2	the second key
+   * @return		less than, equal to or greater than zero if the first
+   * 			key is less than, equal to or greater than the second
+   */
+  protected abstract int compareKeys(K key1, K key2);
+
+  /**
+   * Compares the entries, using the name as tie-breaker.
+   *
+   * @param e1		the first entry
+   * @param e2		the second entry
+   * @return		the comparison result
+   */
+  protected int compareEntries(Entry<K> e1, Entry<K> e2) {
+    int		result;
+
+    result = compareKeys(e1.key, e2.key);
+    if (result == 0)
+      result = e1.name.compareTo(e2.name);
+
+    return result;
+  }
+
+  /**
+   * Creates an array for the entries.
+   *
+   * @param size	the size of the array
+   * @return		the array
+   */
+  @SuppressWarnings("unchecked")
+  protected Entry<K>[] newEntries(int size) {
+    return (Entry<K>[]) new Entry<?>[size];
+  }
+
+  /**
+   * Sorts the directories by name, in place.
+   *
+   * @param dirs	the directories to sort
+   */
+  @Override
+  public void sort(List<File> dirs) {
+    Entry<K>[]	entries;
+    String	name;
+    int		i;
+
+    if (dirs.size() < 2)
+      return;
+
+    entries = newEntries(dirs.size());
+    for (i = 0; i < entries.length; i++) {
+      name       = dirs.get(i).getName();
+      entries[i] = new Entry<>(dirs.get(i), name, createKey(name));
+    }
+    Arrays.sort(entries, this::compareEntries);
+    for (i = 0; i < entries.length; i++)
+      dirs.set(i, entries[i].directory);
+  }
+
+  /**
+   * Compares the directory names.
+   *
+   * @param name1	the first name
+   * @param name2	the second name
+   * @return		less than, equal to or greater than zero if the first
+   * 			name is less than, equal to or greater than the second
+   */
+  @Override
+  public int compare(String name1, String name2) {
+    int		result;
+
+    result = compareKeys(createKey(name1), createKey(name2));
+    if (result == 0)
+      result = name1.compareTo(name2);
+
+    return result;
+  }
+
+  /**
+   * Returns a short description of the sorter.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return getClass().getSimpleName();
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * CaseInsensitiveDirectorySorter.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.sort;
+
+/**
+ * Sorts the directories by name, ignoring the case first. Compares the
+ * characters directly, i.e., does not allocate lower case copies of the
+ * names. The default sorter.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CaseInsensitiveDirectorySorter
+  extends AbstractDirectorySorter<String> {
+
+  /**
+   * Uses the name as key.
+   *
+   * @param name	the name of the directory
+   * @return		the name
+   */
+  @Override
+  protected String createKey(String name) {
+    return name;
+  }
+
+  /**
+   * Compares the names, ignoring the case.
+   *
+   * @param key1	the first name
+   * @param key2	the second name
+   * @return		the comparison result
+   */
+  @Override
+  protected int compareKeys(String key1, String key2) {
+    return key1.compareToIgnoreCase(key2);
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * CaseSensitiveDirectorySorter.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.sort;
+
+/**
+ * Sorts the directories by name, taking the case into account, i.e.,
+ * upper case names come before lower case ones.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CaseSensitiveDirectorySorter
+  extends AbstractDirectorySorter<String> {
+
+  /**
+   * Uses the name as key.
+   *
+   * @param name	the name of the directory
+   * @return		the name
+   */
+  @Override
+  protected String createKey(String name) {
+    return name;
+  }
+
+  /**
+   * Compares the names.
+   *
+   * @param key1	the first name
+   * @param key2	the second name
+   * @return		the comparison result
+   */
+  @Override
+  protected int compareKeys(String key1, String key2) {
+    return key1.compareTo(key2);
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * CollatedDirectorySorter.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.sort;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Locale;
+
+/**
+ * Sorts the directories by name using the collation rules of a locale.
+ * The {@link CollationKey} of each name gets computed once per sort.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class CollatedDirectorySorter
+  extends AbstractDirectorySorter<CollationKey> {
+
+  /** the locale in use. */
+  protected Locale m_Locale;
+
+  /** the collator to use (not thread-safe). */
+  protected Collator m_Collator;
+
+  /**
+   * Initializes the sorter with the default locale.
+   */
+  public CollatedDirectorySorter() {
+    this(Locale.getDefault());
+  }
+
+  /**
+   * Initializes the sorter.
+   *
+   * @param locale	the locale to use
+   */
+  public CollatedDirectorySorter(Locale locale) {
+    m_Locale   = locale;
+    m_Collator = Collator.getInstance(locale);
+  }
+
+  /**
+   * Returns the locale in use.
+   *
+   * @return		the locale
+   */
+  public Locale getLocale() {
+    return m_Locale;
+  }
+
+  /**
+   * Computes the collation key of the name.
+   *
+   * @param name	the name of the directory
+   * @return		the key
+   */
+  @Override
+  protected CollationKey createKey(String name) {
+    synchronized(m_Collator) {
+      return m_Collator.getCollationKey(name);
+    }
+  }
+
+  /**
+   * Compares the collation keys.
+   *
+   * @param key1	the first key
+   * @param key2	the second key
+   * @return		the comparison result
+   */
+  @Override
+  protected int compareKeys(CollationKey key1, CollationKey key2) {
+    return key1.compareTo(key2);
+  }
+
+  /**
+   * Compares the directory names, without creating collation keys.
+   *
+   * @param name1	the first name
+   * @param name2	the second name
+   * @return		the comparison result
+   */
+  @Override
+  public int compare(String name1, String name2) {
+    int		result;
+
+    synchronized(m_Collator) {
+      result = m_Collator.compare(name1, name2);
+    }
+    if (result == 0)
+      result = name1.compareTo(name2);
+
+    return result;
+  }
+
+  /**
+   * Returns a short description of the sorter.
+   *
+   * @return		the description
+   */
+  @Override
+  public String toString() {
+    return super.toString() + "[" + m_Locale + "]";
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * DirectorySorter.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.sort;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Interface for classes that determine the order of the sub-directories
+ * in the tree. Implementations must be thread-safe, as they can get called
+ * from background threads.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public interface DirectorySorter {
+
+  /**
+   * Sorts the directories by name, in place.
+   *
+   * @param dirs	the directories to sort
+   */
+  public void sort(List<File> dirs);
+
+  /**
+   * Compares the directory names.
+   *
+   * @param name1	the first name
+   * @param name2	the second name
+   * @return		less than, equal to or greater than zero if the first
+   * 			name is less than, equal to or greater than the second
+   */
+  public int compare(String name1, String name2);
+}
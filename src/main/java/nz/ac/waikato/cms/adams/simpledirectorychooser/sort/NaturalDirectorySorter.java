@@ -0,0 +1,117 @@
+/*
+ * NaturalDirectorySorter.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.sort;
+
+/**
+ * Sorts the directories by name, ignoring the case and comparing runs of
+ * digits by their numeric value, e.g., "dir2" comes before "dir10".
+ * The lower case form of each name gets computed once per sort.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class NaturalDirectorySorter
+  extends AbstractDirectorySorter<char[]> {
+
+  /**
+   * Uses the lower case characters of the name as key.
+   *
+   * @param name	the name of the directory
+   * @return		the key
+   */
+  @Override
+  protected char[] createKey(String name) {
+    char[]	result;
+    int		i;
+
+    result = name.toCharArray();
+    for (i = 0; i < result.length; i++)
+      result[i] = Character.toLowerCase(result[i]);
+
+    return result;
+  }
+
+  /**
+   * Returns the end of the run of digits starting at the specified position.
+   *
+   * @param key		the key to scan
+   * @param start	the start of the run
+   * @return		the position after the last digit
+   */
+  protected int endOfDigits(char[] key, int start) {
+    int		result;
+
+    result = start;
+    while ((result < key.length) && Character.isDigit(key[result]))
+      result++;
+
+    return result;
+  }
+
+  /**
+   * Returns the position of the first non-zero digit in the run.
+   *
+   * @param key		the key to scan
+   * @param start	the start of the run
+   * @param end		the end of the run
+   * @return		the position
+   */
+  protected int skipZeros(char[] key, int start, int end) {
+    int		result;
+
+    result = start;
+    while ((result < end - 1) && (key[result] == '0'))
+      result++;
+
+    return result;
+  }
+
+  /**
+   * Compares the keys, comparing runs of digits numerically.
+   *
+   * @param key1	the first key
+   * @param key2	the second key
+   * @return		the comparison result
+   */
+  @Override
+  protected int compareKeys(char[] key1, char[] key2) {
+    int		i1;
+    int		i2;
+    int		end1;
+    int		end2;
+    int		start1;
+    int		start2;
+    int		result;
+
+    i1 = 0;
+    i2 = 0;
+    while ((i1 < key1.length) && (i2 < key2.length)) {
+      if (Character.isDigit(key1[i1]) && Character.isDigit(key2[i2])) {
+	end1   = endOfDigits(key1, i1);
+	end2   = endOfDigits(key2, i2);
+	start1 = skipZeros(key1, i1, end1);
+	start2 = skipZeros(key2, i2, end2);
+	// more significant digits means larger number
+	result = (end1 - start1) - (end2 - start2);
+	if (result != 0)
+	  return result;
+	while (start1 < end1) {
+	  result = key1[start1++] - key2[start2++];
+	  if (result != 0)
+	    return result;
+	}
+	i1 = end1;
+	i2 = end2;
+      }
+      else {
+	result = key1[i1++] - key2[i2++];
+	if (result != 0)
+	  return result;
+      }
+    }
+
+    return (key1.length - i1) - (key2.length - i2);
+  }
+}
@@ -1,32 +1,159 @@
 /*
  * DirectoryNode.java
- * Copyright (C) 2022 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2022-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package nz.ac.waikato.cms.adams.simpledirectorychooser.tree;
 
+import nz.ac.waikato.cms.adams.simpledirectorychooser.scan.CachingDirectoryScanner;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.scan.DirectoryScanListener;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.sort.DirectorySorter;
+
+import javax.swing.SwingUtilities;
 import javax.swing.filechooser.FileSystemView;
 import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.MutableTreeNode;
+import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Encapsulates a single directory in the directory tree.
+ * <br>
+ * To keep the memory footprint low in large trees, nodes of sub-directories
+ * only store the name of the directory and derive the full directory from
+ * their parent. Nodes that haven't been loaded yet display a shared
+ * placeholder child rather than having an actual child node.
  *
  * @author fracpete (fracpete at waikato dot ac dot nz)
  */
 public class DirectoryNode
     extends ExpandableNode {
 
+  /**
+   * Scans a directory in the background and hands over the sub-directories
+   * in batches to the event dispatch thread.
+   */
+  protected class BatchLoader
+    implements Runnable, DirectoryScanListener {
+
+    /** the generation of the node at the time the load was started. */
+    protected int m_LoadGeneration;
+
+    /** the directory to scan. */
+    protected File m_LoadDirectory;
+
+    /** the current batch. */
+    protected List<File> m_Batch;
+
+    /** the timestamp of the last flush. */
+    protected long m_LastFlush;
+
+    /**
+     * Initializes the loader. The directory must be determined on the event
+     * dispatch thread, as the node might get moved or detached while the
+     * scan is running.
+     *
+     * @param generation	the generation of the node
+     * @param dir		the directory to scan
+     */
+    public BatchLoader(int generation, File dir) {
+      m_LoadGeneration = generation;
+      m_LoadDirectory  = dir;
+      m_Batch          = new ArrayList<>();
+      m_LastFlush      = System.currentTimeMillis();
+    }
+
+    /**
+     * Hands over the current batch to the event dispatch thread.
+     *
+     * @param last	whether this is the final batch
+     */
+    protected void flush(boolean last) {
+      final List<File>	batch;
+
+      batch       = m_Batch;
+      m_Batch     = new ArrayList<>();
+      m_LastFlush = System.currentTimeMillis();
+      SwingUtilities.invokeLater(() -> addBatch(m_LoadGeneration, batch, last));
+    }
+
+    /**
+     * Gets called whenever a sub-directory has been found.
+     *
+     * @param dir	the sub-directory
+     * @return		true if to continue scanning, false to stop
+     */
+    @Override
+    public boolean directoryFound(File dir) {
+      if (m_LoadGeneration != m_Generation)
+	return false;
+
+      m_Batch.add(dir);
+      if ((m_Batch.size() >= getOwner().getInsertBatchSize())
+	|| (System.currentTimeMillis() - m_LastFlush >= getOwner().getInsertFlushInterval()))
+	flush(false);
+
+      return true;
+    }
+
+    /**
+     * Performs the scan.
+     */
+    @Override
+    public void run() {
+      try {
+	getOwner().getScanner().scan(m_LoadDirectory, m_ShowHidden, this);
+      }
+      catch (Exception e) {
+	System.err.println("Failed to list directory: " + m_LoadDirectory);
+	e.printStackTrace();
+      }
+      flush(true);
+    }
+  }
+
+  /** the name of the directory. */
+  protected String m_Name;
+
+  /** the full directory, null if derived from the parent node. */
+  protected File m_Directory;
+
+  /** whether the placeholder child is displayed. */
+  protected boolean m_Placeholder;
+
   /** whether to show hidden dirs. */
   protected boolean m_ShowHidden;
 
   /** whether we need to look for sub-dirs. */
   protected boolean m_Initialized;
 
+  /** whether the sub-dirs are currently being loaded in the background. */
+  protected boolean m_Loading;
+
+  /** the generation of the content, outdates pending background loads. */
+  protected volatile int m_Generation;
+
+  /** whether the loaded sub-dirs need to be compared against the file system on next expansion. */
+  protected boolean m_Stale;
+
+  /** the cached display name, null if not determined yet. */
+  protected String m_DisplayName;
+
+  /** the cached home directory flag, null if not determined yet. */
+  protected Boolean m_Home;
+
+  /** the cached drive flag, null if not determined yet. */
+  protected Boolean m_Drive;
+
+  /** the cached file system root flag, null if not determined yet. */
+  protected Boolean m_FileSystemRoot;
+
   /**
    * Initializes the node with the specified dir.
    *
@@ -38,9 +165,33 @@ public class DirectoryNode
     super(owner);
 
     m_Initialized = false;
+    m_Loading     = false;
+    m_Generation  = 0;
+    m_Stale       = false;
     m_ShowHidden  = showHidden;
+    m_Placeholder = true;
     setUserObject(dir);
-    add(new DummyNode());
+  }
+
+  /**
+   * Initializes the node for a sub-directory of the parent node. Only the
+   * name gets stored, the directory is derived from the parent. The node
+   * does not get added to the children of the parent.
+   *
+   * @param parent	the parent node
+   * @param name	the name of the sub-directory
+   */
+  protected DirectoryNode(DirectoryNode parent, String name) {
+    super(parent.getOwner());
+
+    m_Initialized = false;
+    m_Loading     = false;
+    m_Generation  = 0;
+    m_Stale       = false;
+    m_ShowHidden  = parent.getShowHidden();
+    m_Placeholder = true;
+    m_Name        = name;
+    this.parent   = parent;
   }
 
   /**
@@ -67,7 +218,54 @@ public class DirectoryNode
    * @return		the directory
    */
   public File getDirectory() {
-    return (File) getUserObject();
+    if (m_Directory != null)
+      return m_Directory;
+    else
+      return new File(((DirectoryNode) parent).getDirectory(), m_Name);
+  }
+
+  /**
+   * Sets the directory to encapsulate.
+   *
+   * @param userObject	the directory
+   */
+  @Override
+  public void setUserObject(Object userObject) {
+    m_Directory = (File) userObject;
+    m_Name      = m_Directory.getName();
+    clearCachedInfo();
+  }
+
+  /**
+   * Returns the encapsulated directory.
+   *
+   * @return		the directory
+   * @see		#getDirectory()
+   */
+  @Override
+  public Object getUserObject() {
+    return getDirectory();
+  }
+
+  /**
+   * Sets the parent. Only keeps the name if the directory is a
+   * sub-directory of the parent's directory, otherwise the full directory.
+   *
+   * @param newParent	the new parent
+   */
+  @Override
+  public void setParent(MutableTreeNode newParent) {
+    File	dir;
+
+    if (newParent == parent)
+      return;
+
+    dir = getDirectory();
+    super.setParent(newParent);
+    if ((newParent instanceof DirectoryNode) && dir.equals(new File(((DirectoryNode) newParent).getDirectory(), m_Name)))
+      m_Directory = null;
+    else
+      m_Directory = dir;
   }
 
   /**
@@ -76,7 +274,9 @@ public class DirectoryNode
    * @return		true if home directory
    */
   public boolean isHomeDirectory() {
-    return new File(System.getProperty("user.home")).equals(getDirectory());
+    if (m_Home == null)
+      m_Home = getOwner().getHomeDirectory().equals(getDirectory());
+    return m_Home;
   }
 
   /**
@@ -85,7 +285,20 @@ public class DirectoryNode
    * @return		true if file system root
    */
   public boolean isFileSystemRoot() {
-    return getView().isFileSystemRoot(getDirectory());
+    if (m_FileSystemRoot == null)
+      m_FileSystemRoot = getView().isFileSystemRoot(getDirectory());
+    return m_FileSystemRoot;
+  }
+
+  /**
+   * Whether the directory represents a drive.
+   *
+   * @return		true if drive
+   */
+  public boolean isDrive() {
+    if (m_Drive == null)
+      m_Drive = getView().isDrive(getDirectory());
+    return m_Drive;
   }
 
   /**
@@ -94,20 +307,49 @@ public class DirectoryNode
    * @return		the directory/drive name
    */
   public String getName() {
-    File	dir;
-
-    dir = getDirectory();
-    if (getView().isDrive(dir))
-      return dir.getAbsolutePath();
+    // only directories without parent directory can be drives
+    if ((m_Directory != null) && isDrive())
+      return m_Directory.getAbsolutePath();
     else
-      return dir.getName();
+      return m_Name;
+  }
+
+  /**
+   * Returns the name to display in the tree, as determined by the file
+   * system view.
+   *
+   * @return		the display name
+   */
+  public String getDisplayName() {
+    if (m_DisplayName == null) {
+      m_DisplayName = getView().getSystemDisplayName(getDirectory());
+      // avoid storing the name twice
+      if (m_Name.equals(m_DisplayName))
+	m_DisplayName = m_Name;
+    }
+    return m_DisplayName;
+  }
+
+  /**
+   * Clears the cached display name and flags.
+   */
+  protected void clearCachedInfo() {
+    m_DisplayName    = null;
+    m_Home           = null;
+    m_Drive          = null;
+    m_FileSystemRoot = null;
   }
 
   /**
-   * Resets the initialized state.
+   * Resets the initialized state and the cached display name/flags.
+   * Any pending background load gets discarded.
    */
   public void reset() {
+    clearCachedInfo();
     m_Initialized = false;
+    m_Loading     = false;
+    m_Stale       = false;
+    m_Generation++;
   }
 
   /**
@@ -120,58 +362,593 @@ public class DirectoryNode
   }
 
   /**
-   * Expands the node if necessary
+   * Returns whether the sub-directories are currently being loaded in the background.
+   *
+   * @return		true if loading
+   */
+  public boolean isLoading() {
+    return m_Loading;
+  }
+
+  /**
+   * Returns the number of directory children, i.e., without the placeholder.
+   *
+   * @return		the number of directory children
+   */
+  protected int getDirectoryCount() {
+    return super.getChildCount();
+  }
+
+  /**
+   * Returns the shared placeholder to display.
+   *
+   * @return		the placeholder
+   */
+  protected DummyNode getPlaceholder() {
+    return m_Loading ? DummyNode.LOADING_PLACEHOLDER : DummyNode.PLACEHOLDER;
+  }
+
+  /**
+   * Returns the number of children, including the placeholder.
+   *
+   * @return		the number of children
+   */
+  @Override
+  public int getChildCount() {
+    return super.getChildCount() + (m_Placeholder ? 1 : 0);
+  }
+
+  /**
+   * Returns the child at the specified index. The placeholder, if
+   * displayed, is always the last child.
+   *
+   * @param index	the index of the child
+   * @return		the child
+   */
+  @Override
+  public TreeNode getChildAt(int index) {
+    if (m_Placeholder && (index == super.getChildCount()))
+      return getPlaceholder();
+    else
+      return super.getChildAt(index);
+  }
+
+  /**
+   * Returns the index of the child.
+   *
+   * @param aChild	the child to look for
+   * @return		the index, -1 if not a child
+   */
+  @Override
+  public int getIndex(TreeNode aChild) {
+    if (aChild instanceof DummyNode)
+      return ((aChild == DummyNode.PLACEHOLDER) || (aChild == DummyNode.LOADING_PLACEHOLDER)) && m_Placeholder ? super.getChildCount() : -1;
+    else
+      return super.getIndex(aChild);
+  }
+
+  /**
+   * Inserts the child, always before the placeholder.
+   *
+   * @param newChild	the child to insert
+   * @param childIndex	the index to insert the child at
+   */
+  @Override
+  public void insert(MutableTreeNode newChild, int childIndex) {
+    super.insert(newChild, Math.min(childIndex, super.getChildCount()));
+  }
+
+  /**
+   * Removes all children, including the placeholder.
+   */
+  @Override
+  public void removeAllChildren() {
+    m_Placeholder = false;
+    super.removeAllChildren();
+  }
+
+  /**
+   * Removes the child at the specified index.
+   *
+   * @param childIndex	the index of the child to remove
    */
   @Override
-  public void expandIfNecessary() {
-    File[] 	files;
+  public void remove(int childIndex) {
+    if (m_Placeholder && (childIndex == super.getChildCount()))
+      m_Placeholder = false;
+    else
+      super.remove(childIndex);
+  }
+
+  /**
+   * Lists the sub-directories of the encapsulated directory, sorted using
+   * the owner's sorter.
+   * Does not access the tree model and can be called from any thread.
+   *
+   * @return		the sub-directories
+   */
+  protected List<File> findDirectories() {
     List<File> 	dirs;
 
-    if (m_Initialized)
+    dirs = getOwner().getScanner().scan(getDirectory(), m_ShowHidden);
+    getOwner().getSorter().sort(dirs);
+
+    return dirs;
+  }
+
+  /**
+   * Replaces the current children with nodes for the specified directories.
+   *
+   * @param dirs	the sub-directories to display
+   */
+  protected void setDirectories(List<File> dirs) {
+    TreeNode[]	nodes;
+    int		i;
+
+    // stop monitoring the old sub-dirs
+    for (i = 0; i < getChildCount(); i++)
+      getOwner().unwatch(getChildAt(i));
+
+    // remove placeholder
+    removeAllChildren();
+
+    // add children
+    nodes = new TreeNode[dirs.size()];
+    for (i = 0; i < nodes.length; i++)
+      nodes[i] = new DirectoryNode(this, dirs.get(i).getName());
+    setChildren(nodes);
+
+    // flag as changed to trigger redraw
+    if (getOwner().getModel() instanceof DefaultTreeModel)
+      ((DefaultTreeModel) getOwner().getModel()).nodeStructureChanged(this);
+  }
+
+  /**
+   * Checks whether the node is still part of the tree's current model.
+   *
+   * @return		true if still attached
+   */
+  protected boolean isAttached() {
+    return (getOwner().getModel() != null) && (getOwner().getModel().getRoot() == getRoot());
+  }
+
+  /**
+   * Notifies the model that the placeholder changed, e.g., to show the
+   * loading message.
+   */
+  protected void updatePlaceholder() {
+    if (!m_Placeholder)
       return;
 
-    m_Initialized = true;
+    if (getOwner().getModel() instanceof DefaultTreeModel)
+      ((DefaultTreeModel) getOwner().getModel()).nodesChanged(this, new int[]{getDirectoryCount()});
+  }
+
+  /**
+   * Merges the sorted directories into the (sorted) children and notifies
+   * the model about the inserted nodes. The placeholder, if present, stays last.
+   *
+   * @param dirs	the sorted sub-directories to insert
+   */
+  protected void insertDirectories(List<File> dirs) {
+    TreeNode[]		merged;
+    int[]		indices;
+    int			count;
+    int			i;
+    int			n;
+    int			m;
+    TreeNode		child;
+    DirectorySorter	sorter;
+
+    if (dirs.isEmpty())
+      return;
+
+    sorter  = getOwner().getSorter();
+    count   = getDirectoryCount();
+    merged  = new TreeNode[count + dirs.size()];
+    indices = new int[dirs.size()];
+    i       = 0;
+    n       = 0;
+    m       = 0;
+    while ((i < count) || (n < dirs.size())) {
+      child = (i < count) ? getChildAt(i) : null;
+      if ((n < dirs.size())
+	&& (!(child instanceof DirectoryNode) || (sorter.compare(dirs.get(n).getName(), ((DirectoryNode) child).m_Name) < 0))) {
+	indices[n] = m;
+	merged[m++] = new DirectoryNode(this, dirs.get(n).getName());
+	n++;
+      }
+      else {
+	merged[m++] = child;
+	i++;
+      }
+    }
+    setChildren(merged);
+
+    if (getOwner().getModel() instanceof DefaultTreeModel)
+      ((DefaultTreeModel) getOwner().getModel()).nodesWereInserted(this, indices);
+  }
+
+  /**
+   * Removes the children at the specified indices and notifies the model.
+   *
+   * @param indices	the indices of the children to remove, ascending
+   */
+  protected void removeChildren(int[] indices) {
+    TreeNode[]		remaining;
+    Object[]		removed;
+    int			count;
+    int			i;
+    int			n;
+    TreeNode		child;
+
+    if (indices.length == 0)
+      return;
+
+    count     = getDirectoryCount();
+    remaining = new TreeNode[count - indices.length];
+    removed   = new Object[indices.length];
+    n         = 0;
+    for (i = 0; i < count; i++) {
+      child = getChildAt(i);
+      if ((n < indices.length) && (indices[n] == i)) {
+	removed[n++] = child;
+	((MutableTreeNode) child).setParent(null);
+	getOwner().unwatch(child);
+      }
+      else {
+	remaining[i - n] = child;
+      }
+    }
+    setChildren(remaining);
+
+    if (getOwner().getModel() instanceof DefaultTreeModel)
+      ((DefaultTreeModel) getOwner().getModel()).nodesWereRemoved(this, indices, removed);
+  }
+
+  /**
+   * Returns the index of the child node representing the specified sub-directory.
+   *
+   * @param name	the name of the sub-directory
+   * @return		the index, -1 if not found
+   */
+  public int indexOfDirectory(String name) {
+    int		i;
+    TreeNode	child;
 
-    // find dirs
+    for (i = 0; i < getDirectoryCount(); i++) {
+      child = getChildAt(i);
+      if ((child instanceof DirectoryNode) && ((DirectoryNode) child).m_Name.equals(name))
+	return i;
+    }
+
+    return -1;
+  }
+
+  /**
+   * Applies the changes to the loaded sub-directories, e.g., reported by
+   * a {@link DirectoryWatcher}. Only fires events for the affected nodes.
+   * Does nothing if the node hasn't been initialized yet.
+   *
+   * @param created	the newly created files/directories
+   * @param deleted	the names of the deleted files/directories
+   */
+  public void update(List<File> created, List<String> deleted) {
+    Set<Integer>	removed;
+    int[]		indices;
+    int			index;
+    int			i;
+    List<File>		dirs;
+    Set<String>		names;
+
+    if (!m_Initialized)
+      return;
+
+    // deleted
+    removed = new TreeSet<>();
+    for (String name: deleted) {
+      index = indexOfDirectory(name);
+      if (index > -1)
+	removed.add(index);
+    }
+    indices = new int[removed.size()];
+    i       = 0;
+    for (Integer r: removed)
+      indices[i++] = r;
+    removeChildren(indices);
+
+    // created
     dirs  = new ArrayList<>();
-    files = getDirectory().listFiles();
-    if (files != null) {
-      for (File f : files) {
-	if (f.isDirectory()) {
-	  if (!m_ShowHidden && f.isHidden())
-	    continue;
-	  dirs.add(f);
-	}
+    names = new HashSet<>();
+    for (File f: created) {
+      if (names.contains(f.getName()) || (indexOfDirectory(f.getName()) > -1))
+	continue;
+      if (!f.isDirectory() || (!m_ShowHidden && f.isHidden()))
+	continue;
+      names.add(f.getName());
+      dirs.add(f);
+    }
+    getOwner().getSorter().sort(dirs);
+    insertDirectories(dirs);
+  }
+
+  /**
+   * Re-lists the sub-directories and compares them with the loaded ones
+   * using a sorted merge. Only fires events for removed/inserted nodes,
+   * i.e., none if nothing has changed. Does not recurse. Bypasses any
+   * cached listing of the directory.
+   */
+  protected void updateDirectories() {
+    List<File>		dirs;
+    List<File>		added;
+    List<Integer>	removed;
+    int[]		indices;
+    int			count;
+    int			i;
+    int			n;
+    int			cmp;
+    TreeNode		child;
+    DirectorySorter	sorter;
+
+    m_Stale = false;
+    if (getOwner().getScanner() instanceof CachingDirectoryScanner)
+      ((CachingDirectoryScanner) getOwner().getScanner()).getCache().invalidate(getDirectory());
+    sorter  = getOwner().getSorter();
+    dirs    = findDirectories();
+    added   = new ArrayList<>();
+    removed = new ArrayList<>();
+    count   = getDirectoryCount();
+    i       = 0;
+    n       = 0;
+    while ((i < count) || (n < dirs.size())) {
+      child = (i < count) ? getChildAt(i) : null;
+      if ((child != null) && !(child instanceof DirectoryNode)) {
+	removed.add(i++);
+	continue;
+      }
+      if (child == null)
+	cmp = 1;
+      else if (n == dirs.size())
+	cmp = -1;
+      else
+	cmp = sorter.compare(((DirectoryNode) child).m_Name, dirs.get(n).getName());
+      if (cmp == 0) {
+	i++;
+	n++;
+      }
+      else if (cmp < 0) {
+	removed.add(i++);
+      }
+      else {
+	added.add(dirs.get(n++));
       }
-      dirs.sort(new Comparator<File>() {
-	@Override
-	public int compare(File o1, File o2) {
-	  return o1.getName().toLowerCase().compareTo(o2.getName().toLowerCase());
-	}
-      });
     }
 
-    // remove dummy node
-    removeAllChildren();
+    indices = new int[removed.size()];
+    for (i = 0; i < indices.length; i++)
+      indices[i] = removed.get(i);
+    removeChildren(indices);
+    insertDirectories(added);
+  }
 
-    // add children
-    for (File dir: dirs)
-      add(new DirectoryNode(getOwner(), dir, getShowHidden()));
+  /**
+   * Flags the node and its loaded descendants as stale, i.e., they get
+   * compared against the file system the next time they get expanded.
+   */
+  protected void markStale() {
+    int		i;
+
+    if (!m_Initialized)
+      return;
+
+    m_Stale = true;
+    for (i = 0; i < getChildCount(); i++) {
+      if (getChildAt(i) instanceof DirectoryNode)
+	((DirectoryNode) getChildAt(i)).markStale();
+    }
+  }
+
+  /**
+   * Refreshes the loaded sub-directories incrementally. Expanded nodes get
+   * re-listed and compared against the loaded sub-directories, collapsed
+   * ones only get flagged as stale and get updated when expanded again.
+   * Uninitialized nodes are left untouched.
+   */
+  @Override
+  public void refresh() {
+    if (!m_Initialized)
+      return;
+
+    if (getOwner().isExpanded(new TreePath(getPath()))) {
+      updateDirectories();
+      super.refresh();
+    }
+    else {
+      markStale();
+    }
+  }
+
+  /**
+   * Unloads the sub-directories, i.e., resets the node to the uninitialized
+   * state with just the placeholder as child. Does nothing if the node
+   * hasn't been initialized yet or is still loading.
+   */
+  public void unload() {
+    if (!m_Initialized || m_Loading)
+      return;
+
+    reset();
+    removeAllChildren();
+    m_Placeholder = true;
 
-    // flag as changed to trigger redraw
     if (getOwner().getModel() instanceof DefaultTreeModel)
       ((DefaultTreeModel) getOwner().getModel()).nodeStructureChanged(this);
+  }
+
+  /**
+   * Re-lists the sub-directories of an initialized node from scratch.
+   */
+  public void rescan() {
+    if (!m_Initialized)
+      return;
+    reset();
+    expandIfNecessary(false);
+  }
+
+  /**
+   * Removes the placeholder, if present.
+   */
+  protected void removePlaceholder() {
+    int		index;
+    TreeNode	dummy;
+
+    if (!m_Placeholder)
+      return;
+    index         = getDirectoryCount();
+    dummy         = getPlaceholder();
+    m_Placeholder = false;
+    if (getOwner().getModel() instanceof DefaultTreeModel)
+      ((DefaultTreeModel) getOwner().getModel()).nodesWereRemoved(this, new int[]{index}, new Object[]{dummy});
+  }
+
+  /**
+   * Adds a batch of sub-directories that were scanned in the background.
+   * Must be called from the event dispatch thread. Outdated batches get ignored.
+   *
+   * @param generation	the generation of the node the batch was scanned for
+   * @param batch	the sub-directories to add
+   * @param last	whether this is the last batch
+   */
+  protected void addBatch(int generation, List<File> batch, boolean last) {
+    if ((generation != m_Generation) || !m_Loading || !isAttached())
+      return;
+
+    getOwner().getSorter().sort(batch);
+    insertDirectories(batch);
+
+    if (last) {
+      m_Loading     = false;
+      m_Initialized = true;
+      removePlaceholder();
+      getOwner().getEvictor().loaded(this);
+    }
+  }
+
+  /**
+   * Lists the sub-directories using the owner's background executor and
+   * inserts them into the model on the event dispatch thread in batches,
+   * while the scan is still running. Results get discarded if the node gets
+   * reset or the tree rebuilt in the meantime. Uses the listing of the
+   * prefetcher instead, if available.
+   *
+   * @see DirectoryTree#getInsertBatchSize()
+   * @see DirectoryTree#getInsertFlushInterval()
+   */
+  protected void loadAsync() {
+    List<File>	dirs;
+
+    dirs = getOwner().getPrefetcher().take(getDirectory());
+    if (dirs != null) {
+      initialize(dirs);
+      return;
+    }
+
+    m_Loading = true;
+    updatePlaceholder();
+    getOwner().getLoaderExecutor().submit(new BatchLoader(m_Generation, getDirectory()));
+  }
+
+  /**
+   * Expands the node if necessary.
+   *
+   * @param async	whether to load the sub-directories in the background
+   */
+  @Override
+  public void expandIfNecessary(boolean async) {
+    if (m_Initialized) {
+      if (m_Stale)
+	updateDirectories();
+      return;
+    }
+
+    if (async) {
+      if (!m_Loading)
+	loadAsync();
+      return;
+    }
+
+    loadIfNecessary();
 
     // expand path
     getOwner().expandPath(new TreePath(getPath()));
   }
 
+  /**
+   * Loads the sub-directories synchronously if necessary, without
+   * expanding the node in the tree. Uses the listing of the prefetcher,
+   * if available.
+   */
+  public void loadIfNecessary() {
+    List<File>	dirs;
+
+    if (m_Initialized) {
+      if (m_Stale)
+	updateDirectories();
+      return;
+    }
+
+    dirs = getOwner().getPrefetcher().take(getDirectory());
+    if (dirs == null)
+      dirs = findDirectories();
+    initialize(dirs);
+  }
+
+  /**
+   * Initializes the node with sub-directories that have been listed
+   * elsewhere, e.g., in the background. Does nothing if already initialized.
+   *
+   * @param dirs	the sorted sub-directories
+   * @return		true if initialized with the directories
+   */
+  protected boolean initialize(List<File> dirs) {
+    if (m_Initialized)
+      return false;
+
+    // outdate any pending background load
+    if (m_Loading) {
+      m_Loading = false;
+      m_Generation++;
+    }
+
+    m_Initialized = true;
+    setDirectories(dirs);
+    getOwner().getEvictor().loaded(this);
+
+    return true;
+  }
+
+  /**
+   * Returns a shallow copy of the node, without parent and children.
+   * The copy stores the full directory.
+   *
+   * @return		the copy
+   */
+  @Override
+  public Object clone() {
+    DirectoryNode	result;
+
+    result = (DirectoryNode) super.clone();
+    result.m_Directory = getDirectory();
+
+    return result;
+  }
+
   /**
    * Returns the directory name.
    *
    * @return		the dir name
    */
   public String toString() {
-    return getView().getSystemDisplayName(getDirectory());
+    return getDisplayName();
   }
 }
@@ -0,0 +1,472 @@
+/*
+ * DirectoryPrefetcher.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.tree;
+
+import nz.ac.waikato.cms.adams.simpledirectorychooser.core.DaemonThreadFactory;
+
+import javax.swing.tree.TreeNode;
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lists the directories the user is likely to expand next in the
+ * background, i.e., the sub-directories of the selected or expanded node
+ * and, depending on the depth, the levels below. The listings are kept in
+ * memory for a limited time and are used (once) when the corresponding
+ * nodes get loaded, as long as the modification time of the directory is
+ * unchanged. Selecting/expanding another node discards the pending
+ * listings of the previous one.
+ * <br>
+ * Disabled by default, i.e., with a depth of 0.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class DirectoryPrefetcher {
+
+  /** the default maximum number of listings to keep. */
+  public final static int DEFAULT_MAX_ENTRIES = 500;
+
+  /** the default number of threads. */
+  public final static int DEFAULT_THREADS = 1;
+
+  /** the default time in msec after which listings get discarded. */
+  public final static long DEFAULT_MAX_AGE = 30000;
+
+  /**
+   * A listing with the time it was made and the modification time of the
+   * directory.
+   */
+  protected static class Prefetched {
+
+    /** the sorted sub-directories. */
+    public final List<File> dirs;
+
+    /** the modification time of the directory before listing it. */
+    public final long modified;
+
+    /** the time of the listing. */
+    public final long timestamp;
+
+    /**
+     * Initializes the listing.
+     *
+     * @param dirs	the sorted sub-directories
+     * @param modified	the modification time of the directory before listing it
+     */
+    public Prefetched(List<File> dirs, long modified) {
+      this.dirs      = dirs;
+      this.modified  = modified;
+      this.timestamp = System.currentTimeMillis();
+    }
+  }
+
+  /**
+   * Lists a directory and schedules the listing of its sub-directories.
+   */
+  protected class PrefetchTask
+    implements Runnable {
+
+    /** the generation the task belongs to. */
+    protected int m_PrefetchGeneration;
+
+    /** the directory to list. */
+    protected File m_Directory;
+
+    /** the number of levels to list, including this one. */
+    protected int m_Levels;
+
+    /**
+     * Initializes the task.
+     *
+     * @param generation	the generation the task belongs to
+     * @param dir	the directory to list
+     * @param levels	the number of levels to list, including this one
+     */
+    public PrefetchTask(int generation, File dir, int levels) {
+      m_PrefetchGeneration = generation;
+      m_Directory          = dir;
+      m_Levels             = levels;
+    }
+
+    /**
+     * Lists the directory.
+     */
+    @Override
+    public void run() {
+      List<File>	dirs;
+      long		modified;
+
+      if ((m_PrefetchGeneration != m_Generation) || (m_Scheduled.incrementAndGet() > m_MaxEntries))
+	return;
+
+      try {
+	modified = m_Directory.lastModified();
+	dirs = m_Owner.getScanner().scan(m_Directory, m_Owner.getShowHidden());
+	m_Owner.getSorter().sort(dirs);
+      }
+      catch (Exception e) {
+	System.err.println("Failed to prefetch directory: " + m_Directory);
+	e.printStackTrace();
+	return;
+      }
+      // listings made with the settings of a previous tree must not be used
+      synchronized(m_Listings) {
+	if (m_PrefetchGeneration != m_Generation)
+	  return;
+	m_Listings.put(m_Directory, new Prefetched(dirs, modified));
+      }
+      m_PrefetchCount.incrementAndGet();
+
+      if (m_Levels > 1) {
+	for (File dir: dirs)
+	  submit(new PrefetchTask(m_PrefetchGeneration, dir, m_Levels - 1));
+      }
+    }
+  }
+
+  /** the tree this prefetcher belongs to. */
+  protected DirectoryTree m_Owner;
+
+  /** the number of levels to list, 0 to disable. */
+  protected int m_Depth;
+
+  /** the maximum number of listings to keep (and to make per selection). */
+  protected int m_MaxEntries;
+
+  /** the number of threads. */
+  protected int m_NumThreads;
+
+  /** the time in msec after which listings get discarded. */
+  protected long m_MaxAge;
+
+  /** the executor, null if not yet created. */
+  protected ExecutorService m_Executor;
+
+  /** the listings. */
+  protected Map<File, Prefetched> m_Listings;
+
+  /** the generation, tasks of older ones get skipped. */
+  protected volatile int m_Generation;
+
+  /** the number of listings made for the current generation. */
+  protected AtomicInteger m_Scheduled;
+
+  /** the number of loaded nodes that used a listing. */
+  protected AtomicLong m_HitCount;
+
+  /** the number of loaded nodes that had to list their directory. */
+  protected AtomicLong m_MissCount;
+
+  /** the number of listings made. */
+  protected AtomicLong m_PrefetchCount;
+
+  /**
+   * Initializes the prefetcher. Disabled by default.
+   *
+   * @param owner	the tree this prefetcher belongs to
+   */
+  public DirectoryPrefetcher(DirectoryTree owner) {
+    m_Owner         = owner;
+    m_Depth         = 0;
+    m_MaxEntries    = DEFAULT_MAX_ENTRIES;
+    m_NumThreads    = DEFAULT_THREADS;
+    m_MaxAge        = DEFAULT_MAX_AGE;
+    m_Executor      = null;
+    m_Generation    = 0;
+    m_Scheduled     = new AtomicInteger();
+    m_HitCount      = new AtomicLong();
+    m_MissCount     = new AtomicLong();
+    m_PrefetchCount = new AtomicLong();
+    m_Listings      = new LinkedHashMap<File, Prefetched>(16, 0.75f, true) {
+      private static final long serialVersionUID = 2405846203394841857L;
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<File, Prefetched> eldest) {
+	return size() > m_MaxEntries;
+      }
+    };
+  }
+
+  /**
+   * Sets the number of levels to list below the selected/expanded node,
+   * e.g., 2 for its sub-directories and their sub-directories.
+   *
+   * @param value	the number of levels, 0 to disable
+   */
+  public void setDepth(int value) {
+    m_Depth = Math.max(0, value);
+    if (m_Depth == 0)
+      clear();
+  }
+
+  /**
+   * Returns the number of levels to list below the selected/expanded node.
+   *
+   * @return		the number of levels, 0 if disabled
+   */
+  public int getDepth() {
+    return m_Depth;
+  }
+
+  /**
+   * Returns whether prefetching is enabled.
+   *
+   * @return		true if enabled
+   */
+  public boolean isEnabled() {
+    return (m_Depth > 0);
+  }
+
+  /**
+   * Sets the maximum number of listings to keep, which is also the maximum
+   * number of directories to list per selection.
+   *
+   * @param value	the maximum number
+   */
+  public void setMaxEntries(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Maximum number of entries must be at least 1: " + value);
+    m_MaxEntries = value;
+  }
+
+  /**
+   * Returns the maximum number of listings to keep.
+   *
+   * @return		the maximum number
+   */
+  public int getMaxEntries() {
+    return m_MaxEntries;
+  }
+
+  /**
+   * Sets the number of threads to list the directories with. Takes effect
+   * when the threads get created, i.e., with the first prefetch.
+   *
+   * @param value	the number of threads
+   */
+  public void setNumThreads(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("At least one thread required: " + value);
+    m_NumThreads = value;
+  }
+
+  /**
+   * Returns the number of threads to list the directories with.
+   *
+   * @return		the number of threads
+   */
+  public int getNumThreads() {
+    return m_NumThreads;
+  }
+
+  /**
+   * Sets the time after which listings get discarded.
+   *
+   * @param value	the time in msec
+   */
+  public void setMaxAge(long value) {
+    m_MaxAge = value;
+  }
+
+  /**
+   * Returns the time after which listings get discarded.
+   *
+   * @return		the time in msec
+   */
+  public long getMaxAge() {
+    return m_MaxAge;
+  }
+
+  /**
+   * Returns the executor for listing directories, creates it if necessary.
+   *
+   * @return		the executor
+   */
+  protected synchronized ExecutorService getExecutor() {
+    ThreadPoolExecutor	executor;
+
+    if (m_Executor == null) {
+      executor = new ThreadPoolExecutor(
+	m_NumThreads, m_NumThreads, 10, TimeUnit.SECONDS,
+	new LinkedBlockingQueue<>(), new DaemonThreadFactory(m_Owner.getClass().getSimpleName() + "-prefetch", Thread.MIN_PRIORITY));
+      executor.allowCoreThreadTimeOut(true);
+      m_Executor = executor;
+    }
+
+    return m_Executor;
+  }
+
+  /**
+   * Schedules the task.
+   *
+   * @param task	the task to schedule
+   */
+  protected void submit(PrefetchTask task) {
+    getExecutor().submit(task);
+  }
+
+  /**
+   * Checks whether a listing of the directory is available.
+   *
+   * @param dir		the directory to check
+   * @return		true if available
+   */
+  protected boolean isAvailable(File dir) {
+    Prefetched	prefetched;
+
+    synchronized(m_Listings) {
+      prefetched = m_Listings.get(dir);
+    }
+
+    return (prefetched != null) && (System.currentTimeMillis() - prefetched.timestamp <= m_MaxAge);
+  }
+
+  /**
+   * Schedules the listing of the node, if not yet loaded, otherwise of its
+   * sub-directories.
+   *
+   * @param generation	the current generation
+   * @param node	the node to prefetch
+   * @param level	the level below the selected/expanded node
+   */
+  protected void schedule(int generation, DirectoryNode node, int level) {
+    TreeNode	child;
+    int		i;
+
+    if (!node.isInitialized()) {
+      if (!node.isLoading() && !isAvailable(node.getDirectory()))
+	submit(new PrefetchTask(generation, node.getDirectory(), m_Depth - level));
+      return;
+    }
+
+    if (level + 1 >= m_Depth)
+      return;
+    for (i = 0; i < node.getDirectoryCount(); i++) {
+      child = node.getChildAt(i);
+      if (child instanceof DirectoryNode)
+	schedule(generation, (DirectoryNode) child, level + 1);
+    }
+  }
+
+  /**
+   * Lists the directories below the node in the background, discarding
+   * the pending listings of the previous node. Must be called from the
+   * event dispatch thread.
+   *
+   * @param node	the selected/expanded node
+   */
+  public void prefetch(DirectoryNode node) {
+    if (!isEnabled())
+      return;
+
+    m_Generation++;
+    m_Scheduled.set(0);
+    schedule(m_Generation, node, 0);
+  }
+
+  /**
+   * Returns and removes the listing of the directory, if available and
+   * neither too old nor outdated by a modification of the directory.
+   * The modification time only gets checked if a listing is available.
+   *
+   * @param dir		the directory to get the listing for
+   * @return		the sorted sub-directories, null if not available
+   */
+  public List<File> take(File dir) {
+    Prefetched	prefetched;
+
+    if (!isEnabled())
+      return null;
+
+    synchronized(m_Listings) {
+      prefetched = m_Listings.remove(dir);
+    }
+
+    if ((prefetched == null) || (System.currentTimeMillis() - prefetched.timestamp > m_MaxAge)
+      || (dir.lastModified() != prefetched.modified)) {
+      m_MissCount.incrementAndGet();
+      return null;
+    }
+
+    m_HitCount.incrementAndGet();
+    return prefetched.dirs;
+  }
+
+  /**
+   * Discards all listings and pending work.
+   */
+  public void clear() {
+    synchronized(m_Listings) {
+      m_Generation++;
+      m_Listings.clear();
+    }
+  }
+
+  /**
+   * Returns the number of listings currently kept.
+   *
+   * @return		the number of listings
+   */
+  public int size() {
+    synchronized(m_Listings) {
+      return m_Listings.size();
+    }
+  }
+
+  /**
+   * Returns the number of loaded nodes that used a listing.
+   *
+   * @return		the number of hits
+   */
+  public long getHitCount() {
+    return m_HitCount.get();
+  }
+
+  /**
+   * Returns the number of loaded nodes that had to list their directory.
+   *
+   * @return		the number of misses
+   */
+  public long getMissCount() {
+    return m_MissCount.get();
+  }
+
+  /**
+   * Returns the number of listings made in the background.
+   *
+   * @return		the number of listings
+   */
+  public long getPrefetchCount() {
+    return m_PrefetchCount.get();
+  }
+
+  /**
+   * Resets the hit/miss/prefetch counters.
+   */
+  public void resetStatistics() {
+    m_HitCount.set(0);
+    m_MissCount.set(0);
+    m_PrefetchCount.set(0);
+  }
+
+  /**
+   * Returns the statistics.
+   *
+   * @return		the statistics
+   */
+  @Override
+  public String toString() {
+    return "depth=" + m_Depth + ", listings=" + size() + ", prefetched=" + getPrefetchCount()
+      + ", hits=" + getHitCount() + ", misses=" + getMissCount();
+  }
+}
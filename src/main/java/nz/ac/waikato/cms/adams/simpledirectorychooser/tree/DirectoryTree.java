@@ -5,23 +5,31 @@
 
 package nz.ac.waikato.cms.adams.simpledirectorychooser.tree;
 
+import nz.ac.waikato.cms.adams.simpledirectorychooser.core.DaemonThreadFactory;
 import nz.ac.waikato.cms.adams.simpledirectorychooser.core.GUIHelper;
 import nz.ac.waikato.cms.adams.simpledirectorychooser.core.OS;
 import nz.ac.waikato.cms.adams.simpledirectorychooser.events.DirectoryChangeEvent;
 import nz.ac.waikato.cms.adams.simpledirectorychooser.events.DirectoryChangeListener;
 import nz.ac.waikato.cms.adams.simpledirectorychooser.icons.IconManager;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.scan.CachingDirectoryScanner;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.scan.DirectoryScanner;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.sort.CaseInsensitiveDirectorySorter;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.sort.DirectorySorter;
 
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPopupMenu;
 import javax.swing.JTree;
+import javax.swing.SwingUtilities;
 import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeExpansionListener;
 import javax.swing.event.TreeSelectionEvent;
 import javax.swing.event.TreeSelectionListener;
 import javax.swing.event.TreeWillExpandListener;
 import javax.swing.filechooser.FileSystemView;
 import javax.swing.tree.DefaultTreeModel;
 import javax.swing.tree.ExpandVetoException;
+import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 import javax.swing.tree.TreeSelectionModel;
 import java.awt.event.ActionEvent;
@@ -31,9 +39,16 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Displays the directory structure.
@@ -42,7 +57,7 @@ import java.util.Set;
  */
 public class DirectoryTree
     extends JTree
-    implements TreeWillExpandListener, TreeSelectionListener {
+    implements TreeWillExpandListener, TreeExpansionListener, TreeSelectionListener {
 
   /** the current directory. */
   protected File m_CurrentDir;
@@ -71,6 +86,54 @@ public class DirectoryTree
   /** whether to sort selected directories. */
   protected boolean m_SortSelectedDirectories;
 
+  /** the default number of threads for loading directories in the background. */
+  public final static int DEFAULT_LOADER_THREADS = 4;
+
+  /** whether to load sub-directories in the background. */
+  protected boolean m_AsyncLoading;
+
+  /** the executor for loading sub-directories in the background. */
+  protected ExecutorService m_LoaderExecutor;
+
+  /** the scanner for listing sub-directories. */
+  protected DirectoryScanner m_Scanner;
+
+  /** the sorter for ordering sub-directories. */
+  protected DirectorySorter m_Sorter;
+
+  /** the default number of directories to insert at once when loading in the background. */
+  public final static int DEFAULT_INSERT_BATCH_SIZE = 500;
+
+  /** the default interval in msec after which to insert directories when loading in the background. */
+  public final static int DEFAULT_INSERT_FLUSH_INTERVAL = 100;
+
+  /** the number of directories to insert at once when loading in the background. */
+  protected int m_InsertBatchSize;
+
+  /** the interval in msec after which to insert directories when loading in the background. */
+  protected int m_InsertFlushInterval;
+
+  /** whether to monitor expanded directories. */
+  protected boolean m_LiveMonitoring;
+
+  /** the watcher for monitoring expanded directories, null if not monitoring or not displayed. */
+  protected DirectoryWatcher m_Watcher;
+
+  /** whether a rebuild of the tree is pending. */
+  protected AtomicBoolean m_RebuildPending;
+
+  /** the home directory of the user. */
+  protected File m_HomeDirectory;
+
+  /** for unloading collapsed nodes. */
+  protected NodeEvictor m_Evictor;
+
+  /** for expanding all directories below a node. */
+  protected SubtreeExpander m_Expander;
+
+  /** for listing directories ahead of their expansion. */
+  protected DirectoryPrefetcher m_Prefetcher;
+
   /**
    * Initializes the tree. Does not show hidden dirs.
    */
@@ -95,7 +158,7 @@ public class DirectoryTree
    * @param view	the view to use
    */
   public DirectoryTree(boolean showHidden, IconManager iconManager, FileSystemView view) {
-    super();
+    super(new DefaultTreeModel(null));
 
     initializeMembers();
 
@@ -106,6 +169,7 @@ public class DirectoryTree
     setMultiSelectionEnabled(false);
 
     addTreeWillExpandListener(this);
+    addTreeExpansionListener(this);
     addTreeSelectionListener(this);
     addMouseListener(new MouseAdapter() {
       @Override
@@ -121,7 +185,7 @@ public class DirectoryTree
       }
     });
 
-    buildTree();
+    scheduleRebuild();
   }
 
   /**
@@ -136,6 +200,19 @@ public class DirectoryTree
     m_IconManager         = new IconManager();
     m_PopupMenuEnabled    = false;
     m_PopupMenuCustomizer = null;
+    m_AsyncLoading        = false;
+    m_LoaderExecutor      = null;
+    m_Scanner             = new CachingDirectoryScanner();
+    m_Sorter              = new CaseInsensitiveDirectorySorter();
+    m_InsertBatchSize     = DEFAULT_INSERT_BATCH_SIZE;
+    m_InsertFlushInterval = DEFAULT_INSERT_FLUSH_INTERVAL;
+    m_LiveMonitoring      = false;
+    m_Watcher             = null;
+    m_RebuildPending      = new AtomicBoolean(false);
+    m_HomeDirectory       = new File(System.getProperty("user.home"));
+    m_Evictor             = new NodeEvictor(this);
+    m_Expander            = new SubtreeExpander(this);
+    m_Prefetcher          = new DirectoryPrefetcher(this);
     setCellRenderer(new DirectoryTreeCellRenderer());
   }
 
@@ -147,20 +224,29 @@ public class DirectoryTree
     File[]		roots;
     List<File>		allRoots;
 
-    allRoots = new ArrayList<>(Arrays.asList(FileSystemView.getFileSystemView().getRoots()));
+    allRoots = new ArrayList<>(Arrays.asList(getView().getRoots()));
     if (OS.isWindows())
       allRoots.addAll(Arrays.asList(File.listRoots()));
 
+    if (m_Watcher != null)
+      m_Watcher.clear();
+    m_Evictor.clear();
+    m_Expander.cancel();
+    m_Prefetcher.clear();
+
     roots = allRoots.toArray(new File[0]);
     if (roots.length == 1)
       model = new DefaultTreeModel(new DirectoryNode(this, roots[0], m_ShowHidden));
     else
       model = new DefaultTreeModel(new MultiRootNode(this, roots, m_ShowHidden));
-    ((ExpandableNode) model.getRoot()).expandIfNecessary();
+    ((ExpandableNode) model.getRoot()).expandIfNecessary(false);
 
     setRootVisible(roots.length == 1);
     setShowsRootHandles(true);
     setModel(model);
+
+    if (m_Watcher != null)
+      registerExpanded();
   }
 
   /**
@@ -182,6 +268,17 @@ public class DirectoryTree
     menuitem.addActionListener((ActionEvent e) -> newFolder(false));
     result.add(menuitem);
 
+    if (m_Expander.isRunning()) {
+      menuitem = new JMenuItem("Stop expanding");
+      menuitem.addActionListener((ActionEvent e) -> cancelExpandAll());
+    }
+    else {
+      menuitem = new JMenuItem("Expand all below");
+      menuitem.setEnabled(getCurrentDirectory() != null);
+      menuitem.addActionListener((ActionEvent e) -> expandAllBelow(getCurrentDirectory()));
+    }
+    result.add(menuitem);
+
     if (m_PopupMenuCustomizer != null)
       result = m_PopupMenuCustomizer.customizeMenu(this, result);
 
@@ -225,7 +322,10 @@ public class DirectoryTree
    * @param value	the view object
    */
   public void setView(FileSystemView value) {
+    if (value == m_View)
+      return;
     m_View = value;
+    scheduleRebuild();
   }
 
   /**
@@ -252,6 +352,7 @@ public class DirectoryTree
     if ((event.getPath() != null) && (event.getPath().getLastPathComponent() instanceof DirectoryNode)) {
       node = (DirectoryNode) event.getPath().getLastPathComponent();
       node.expandIfNecessary();
+      m_Prefetcher.prefetch(node);
     }
   }
 
@@ -265,6 +366,60 @@ public class DirectoryTree
   public void treeWillCollapse(TreeExpansionEvent event) throws ExpandVetoException {
   }
 
+  /**
+   * Called whenever an item in the tree has been expanded.
+   * Starts monitoring the node and its expanded descendants when in live mode.
+   *
+   * @param event	the event
+   */
+  @Override
+  public void treeExpanded(TreeExpansionEvent event) {
+    Enumeration<TreePath>	paths;
+    Object			node;
+
+    if (event.getPath() == null)
+      return;
+
+    node = event.getPath().getLastPathComponent();
+    if (node instanceof DirectoryNode)
+      m_Evictor.expanded((DirectoryNode) node);
+
+    if (m_Watcher == null)
+      return;
+
+    if (node instanceof DirectoryNode)
+      m_Watcher.register((DirectoryNode) node);
+
+    paths = getExpandedDescendants(event.getPath());
+    if (paths == null)
+      return;
+    while (paths.hasMoreElements()) {
+      node = paths.nextElement().getLastPathComponent();
+      if (node instanceof DirectoryNode)
+	m_Watcher.register((DirectoryNode) node);
+    }
+  }
+
+  /**
+   * Called whenever an item in the tree has been collapsed.
+   * Stops monitoring the node and its descendants when in live mode and
+   * records the node for eviction.
+   *
+   * @param event	the event
+   */
+  @Override
+  public void treeCollapsed(TreeExpansionEvent event) {
+    Object	node;
+
+    if (event.getPath() == null)
+      return;
+
+    node = event.getPath().getLastPathComponent();
+    unwatch((TreeNode) node);
+    if (node instanceof DirectoryNode)
+      m_Evictor.collapsed((DirectoryNode) node);
+  }
+
   /**
    * Called whenever the value of the selection changes.
    *
@@ -277,6 +432,7 @@ public class DirectoryTree
     if ((e.getPath() != null) && (e.getPath().getLastPathComponent() instanceof DirectoryNode)) {
       node = (DirectoryNode) e.getPath().getLastPathComponent();
       m_CurrentDir = node.getDirectory();
+      m_Prefetcher.prefetch(node);
     }
     else {
       m_CurrentDir = null;
@@ -286,11 +442,57 @@ public class DirectoryTree
   }
 
   /**
-   * Refreshes the tree.
+   * Refreshes the tree incrementally: only the loaded directories get
+   * re-listed and only the differences get applied to the model, retaining
+   * expansion state, selection and scroll position. The roots themselves
+   * don't get re-listed, use {@link #rebuild()} for that.
    */
   public void refresh() {
+    m_Prefetcher.clear();
+
+    if (m_RebuildPending.get()) {
+      rebuildIfNecessary();
+      return;
+    }
+
+    if (!(getModel().getRoot() instanceof ExpandableNode)) {
+      rebuild();
+      return;
+    }
+
+    ((ExpandableNode) getModel().getRoot()).refresh();
+  }
+
+  /**
+   * Flags the tree as requiring a rebuild and schedules a single rebuild
+   * on the event dispatch thread. Any further calls before the rebuild has
+   * happened get coalesced. Methods that require the model to be up-to-date
+   * perform a pending rebuild immediately.
+   *
+   * @see #rebuildIfNecessary()
+   */
+  protected void scheduleRebuild() {
+    if (m_RebuildPending.compareAndSet(false, true))
+      SwingUtilities.invokeLater(this::rebuildIfNecessary);
+  }
+
+  /**
+   * Performs a rebuild if one is pending.
+   *
+   * @see #scheduleRebuild()
+   */
+  protected void rebuildIfNecessary() {
+    if (m_RebuildPending.getAndSet(false))
+      rebuild();
+  }
+
+  /**
+   * Rebuilds the tree from scratch, only retaining the current directory.
+   */
+  public void rebuild() {
     File  curDir;
 
+    m_RebuildPending.set(false);
     curDir = getCurrentDirectory();
 
     buildTree();
@@ -309,20 +511,22 @@ public class DirectoryTree
     List<String> 	result;
     FileSystemView	view;
 
-    view = FileSystemView.getFileSystemView();
+    view = getView();
 
     // file provided?
     if (!value.isDirectory())
       value = value.getParentFile();
 
+    // collect from leaf to root, then reverse
     result = new ArrayList<>();
     while (value != null) {
       if (!value.getName().isEmpty())
-	result.add(0, value.getName());
+	result.add(value.getName());
       else if (view.isDrive(value))
-	result.add(0, value.getAbsolutePath());
+	result.add(value.getAbsolutePath());
       value = value.getParentFile();
     }
+    Collections.reverse(result);
 
     // "." at the end?
     if ((!result.isEmpty()) && result.get(result.size() - 1).equals("."))
@@ -338,6 +542,18 @@ public class DirectoryTree
    * @return		the child node, if successfully expanded
    */
   public DirectoryNode expandDirectory(File value) {
+    return expandDirectory(value, true);
+  }
+
+  /**
+   * Expands the parents of the specified directory and, if requested, the
+   * directory itself (if possible), but does not select it.
+   *
+   * @param value	the directory to expand
+   * @param expandLast	whether to load and expand the directory itself
+   * @return		the child node, if successfully expanded
+   */
+  protected DirectoryNode expandDirectory(File value, boolean expandLast) {
     DirectoryNode	result;
     String[] 		parts;
     int			i;
@@ -347,12 +563,17 @@ public class DirectoryTree
     if (value == null)
       return null;
 
+    rebuildIfNecessary();
+
     result = null;
     root   = (ExpandableNode) getModel().getRoot();
     parts  = toPathElements(value.getAbsoluteFile());
     node   = root;
     for (i = 0; i < parts.length; i++) {
-      node = node.expand(parts[i]);
+      if (expandLast || (i < parts.length - 1))
+	node = node.expand(parts[i]);
+      else
+	node = node.getChild(parts[i]);
       if (node == null)
 	break;
       if (i == parts.length - 1)
@@ -376,20 +597,106 @@ public class DirectoryTree
       m_LastDir    = m_CurrentDir;
       m_CurrentDir = node.getDirectory();
       path = new TreePath(node.getPath());
-      node.expandIfNecessary();
+      node.expandIfNecessary(false);
       setSelectionPath(path);
       scrollPathToVisible(path);
     }
   }
 
   /**
-   * Sets the currently selected directories.
+   * Resolves the nodes for the specified directories in a single pass.
+   * The paths get sorted, so that shared prefixes only get walked once and
+   * each directory along the way gets loaded at most once. Nodes only get
+   * loaded, but not expanded in the tree.
+   *
+   * @param value	the directories to resolve
+   * @return		the nodes, same order as the directories, null entries if not found
+   */
+  protected DirectoryNode[] resolveDirectories(File[] value) {
+    final String[][]	elements;
+    DirectoryNode[]	result;
+    Integer[]		order;
+    ExpandableNode[]	stack;
+    String[]		parts;
+    String[]		prev;
+    int			prevDepth;
+    int			maxDepth;
+    int			common;
+    int			depth;
+    int			i;
+    DirectoryNode	child;
+
+    rebuildIfNecessary();
+
+    result   = new DirectoryNode[value.length];
+    elements = new String[value.length][];
+    order    = new Integer[value.length];
+    maxDepth = 0;
+    for (i = 0; i < value.length; i++) {
+      order[i] = i;
+      if (value[i] != null) {
+	elements[i] = toPathElements(value[i].getAbsoluteFile());
+	maxDepth    = Math.max(maxDepth, elements[i].length);
+      }
+    }
+    Arrays.sort(order, (Integer o1, Integer o2) -> {
+      String[] e1 = elements[o1];
+      String[] e2 = elements[o2];
+      if ((e1 == null) || (e2 == null))
+	return (e1 == null) ? ((e2 == null) ? 0 : -1) : 1;
+      for (int n = 0; n < Math.min(e1.length, e2.length); n++) {
+	int cmp = e1[n].compareTo(e2[n]);
+	if (cmp != 0)
+	  return cmp;
+      }
+      return Integer.compare(e1.length, e2.length);
+    });
+
+    stack     = new ExpandableNode[maxDepth + 1];
+    stack[0]  = (ExpandableNode) getModel().getRoot();
+    prev      = new String[0];
+    prevDepth = 0;
+    for (Integer index: order) {
+      parts = elements[index];
+      if ((parts == null) || (stack[0] == null))
+	continue;
+
+      // re-use the nodes of the common prefix with the previous path
+      common = 0;
+      while ((common < parts.length) && (common < prev.length) && (common < prevDepth) && parts[common].equals(prev[common]))
+	common++;
+
+      depth = common;
+      while (depth < parts.length) {
+	child = stack[depth].getChild(parts[depth]);
+	if (child == null)
+	  break;
+	child.loadIfNecessary();
+	stack[++depth] = child;
+      }
+
+      if ((depth == parts.length) && (depth > 0))
+	result[index] = (DirectoryNode) stack[depth];
+      prev      = parts;
+      prevDepth = depth;
+    }
+
+    return result;
+  }
+
+  /**
+   * Sets the currently selected directories. In multi-selection mode, all
+   * directories get resolved in a single pass, the distinct parents get
+   * expanded once each to make the directories visible and the selection
+   * gets applied in one go.
    *
    * @param value	the directories
+   * @see #resolveDirectories(File[])
    */
   public void setSelectedDirectories(File[] value) {
-    DirectoryNode	node;
+    DirectoryNode[]	nodes;
     List<TreePath>	paths;
+    Set<TreePath>	parents;
     TreePath		firstPath;
     TreePath		path;
 
@@ -399,18 +706,25 @@ public class DirectoryTree
       return;
     }
 
+    nodes     = resolveDirectories(value);
     paths     = new ArrayList<>();
+    parents   = new LinkedHashSet<>();
     firstPath = null;
-    for (File f: value) {
-      node = expandDirectory(f);
+    for (DirectoryNode node: nodes) {
       if (node != null) {
 	path = new TreePath(node.getPath());
 	if (firstPath == null)
 	  firstPath = path;
 	paths.add(path);
-	node.expandIfNecessary();
+	if (path.getParentPath() != null)
+	  parents.add(path.getParentPath());
       }
     }
+
+    for (TreePath p: parents) {
+      if (!isExpanded(p))
+	expandPath(p);
+    }
     setSelectionPaths(paths.toArray(new TreePath[0]));
     if (firstPath != null)
       scrollPathToVisible(firstPath);
@@ -466,7 +780,7 @@ public class DirectoryTree
     if (node == null)
       return;
     node.reset();
-    node.expandIfNecessary();
+    node.expandIfNecessary(false);
   }
 
   /**
@@ -478,6 +792,15 @@ public class DirectoryTree
     return m_CurrentDir;
   }
 
+  /**
+   * Returns the home directory of the user.
+   *
+   * @return		the home directory
+   */
+  public File getHomeDirectory() {
+    return m_HomeDirectory;
+  }
+
   /**
    * Returns the last directory.
    *
@@ -502,8 +825,10 @@ public class DirectoryTree
    * @param value	true if to show hidden dirs
    */
   public void setShowHidden(boolean value) {
+    if (value == m_ShowHidden)
+      return;
     m_ShowHidden = value;
-    refresh();
+    scheduleRebuild();
   }
 
   /**
@@ -512,11 +837,9 @@ public class DirectoryTree
    * @param value	the manager
    */
   public void setIconManager(IconManager value) {
-    DirectoryTreeCellRenderer renderer;
-
     m_IconManager = value;
     m_IconManager.setView(getView());
-    refresh();
+    repaint();
   }
 
   /**
@@ -630,4 +953,519 @@ public class DirectoryTree
   public boolean getSortSelectedDirectories() {
     return m_SortSelectedDirectories;
   }
+
+  /**
+   * Sets whether to load the sub-directories of expanded nodes in the
+   * background rather than on the event dispatch thread.
+   *
+   * @param value	true if to load asynchronously
+   */
+  public void setAsyncLoading(boolean value) {
+    m_AsyncLoading = value;
+  }
+
+  /**
+   * Returns whether the sub-directories of expanded nodes get loaded in the
+   * background rather than on the event dispatch thread.
+   *
+   * @return		true if loaded asynchronously
+   */
+  public boolean isAsyncLoading() {
+    return m_AsyncLoading;
+  }
+
+  /**
+   * Returns the executor for loading sub-directories in the background.
+   * Gets initialized on first call.
+   *
+   * @return		the executor
+   */
+  protected synchronized ExecutorService getLoaderExecutor() {
+    ThreadPoolExecutor	executor;
+
+    if (m_LoaderExecutor == null) {
+      executor = new ThreadPoolExecutor(
+	DEFAULT_LOADER_THREADS, DEFAULT_LOADER_THREADS, 10, TimeUnit.SECONDS,
+	new LinkedBlockingQueue<>(), new DaemonThreadFactory(getClass().getSimpleName() + "-loader"));
+      executor.allowCoreThreadTimeOut(true);
+      m_LoaderExecutor = executor;
+    }
+
+    return m_LoaderExecutor;
+  }
+
+  /**
+   * Sets the scanner to use for listing sub-directories. Only affects
+   * directories that haven't been listed yet, use {@link #refresh()} to
+   * re-list the others. By default, a {@link CachingDirectoryScanner} is
+   * used, which shares its listings with all other trees.
+   *
+   * @param value	the scanner
+   */
+  public void setScanner(DirectoryScanner value) {
+    if (value == null)
+      throw new IllegalArgumentException("Scanner cannot be null!");
+    m_Scanner = value;
+  }
+
+  /**
+   * Returns the scanner in use for listing sub-directories.
+   *
+   * @return		the scanner
+   */
+  public DirectoryScanner getScanner() {
+    return m_Scanner;
+  }
+
+  /**
+   * Sets the sorter to use for ordering the sub-directories. Rebuilds the
+   * tree if the sorter changes.
+   *
+   * @param value	the sorter
+   */
+  public void setSorter(DirectorySorter value) {
+    if (value == null)
+      throw new IllegalArgumentException("Sorter cannot be null!");
+    if (value == m_Sorter)
+      return;
+    m_Sorter = value;
+    scheduleRebuild();
+  }
+
+  /**
+   * Returns the sorter in use for ordering the sub-directories.
+   *
+   * @return		the sorter
+   */
+  public DirectorySorter getSorter() {
+    return m_Sorter;
+  }
+
+  /**
+   * Sets the number of directories to insert into the model at once when
+   * loading in the background.
+   *
+   * @param value	the batch size, at least 1
+   * @see #isAsyncLoading()
+   */
+  public void setInsertBatchSize(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Batch size must be at least 1, provided: " + value);
+    m_InsertBatchSize = value;
+  }
+
+  /**
+   * Returns the number of directories to insert into the model at once when
+   * loading in the background.
+   *
+   * @return		the batch size
+   * @see #isAsyncLoading()
+   */
+  public int getInsertBatchSize() {
+    return m_InsertBatchSize;
+  }
+
+  /**
+   * Sets the interval after which to insert the directories found so far
+   * into the model when loading in the background, even if the batch is
+   * not full yet.
+   *
+   * @param value	the interval in msec, at least 0
+   * @see #isAsyncLoading()
+   */
+  public void setInsertFlushInterval(int value) {
+    if (value < 0)
+      throw new IllegalArgumentException("Flush interval cannot be negative, provided: " + value);
+    m_InsertFlushInterval = value;
+  }
+
+  /**
+   * Returns the interval after which to insert the directories found so far
+   * into the model when loading in the background, even if the batch is
+   * not full yet.
+   *
+   * @return		the interval in msec
+   * @see #isAsyncLoading()
+   */
+  public int getInsertFlushInterval() {
+    return m_InsertFlushInterval;
+  }
+
+  /**
+   * Sets whether to monitor expanded directories for changes and update the
+   * tree automatically.
+   *
+   * @param value	true if to monitor
+   */
+  public void setLiveMonitoring(boolean value) {
+    if (value == isLiveMonitoring())
+      return;
+
+    if (value) {
+      if (!startWatcher())
+	return;
+      m_LiveMonitoring = true;
+    }
+    else {
+      m_LiveMonitoring = false;
+      stopWatcher();
+    }
+  }
+
+  /**
+   * Returns whether expanded directories are monitored for changes.
+   *
+   * @return		true if monitored
+   */
+  public boolean isLiveMonitoring() {
+    return m_LiveMonitoring;
+  }
+
+  /**
+   * Creates the watcher and registers the root and the expanded nodes.
+   *
+   * @return		true if successfully created
+   */
+  protected boolean startWatcher() {
+    try {
+      m_Watcher = new DirectoryWatcher(this);
+    }
+    catch (Exception e) {
+      System.err.println("Failed to initialize directory monitoring!");
+      e.printStackTrace();
+      return false;
+    }
+    rebuildIfNecessary();
+    registerExpanded();
+
+    return true;
+  }
+
+  /**
+   * Registers the root and the expanded nodes with the watcher.
+   */
+  protected void registerExpanded() {
+    Enumeration<TreePath>	paths;
+    Object			node;
+
+    if (getModel().getRoot() == null)
+      return;
+
+    if (getModel().getRoot() instanceof DirectoryNode)
+      m_Watcher.register((DirectoryNode) getModel().getRoot());
+    paths = getExpandedDescendants(new TreePath(getModel().getRoot()));
+    while ((paths != null) && paths.hasMoreElements()) {
+      node = paths.nextElement().getLastPathComponent();
+      if (node instanceof DirectoryNode)
+	m_Watcher.register((DirectoryNode) node);
+    }
+  }
+
+  /**
+   * Closes the watcher, if any.
+   */
+  protected void stopWatcher() {
+    if (m_Watcher != null) {
+      m_Watcher.close();
+      m_Watcher = null;
+    }
+  }
+
+  /**
+   * Returns the watcher for monitoring expanded directories.
+   *
+   * @return		the watcher, null if not monitoring or while the tree
+   * 			is not displayed
+   */
+  public DirectoryWatcher getWatcher() {
+    return m_Watcher;
+  }
+
+  /**
+   * Stops monitoring the node and its descendants (if in live mode).
+   *
+   * @param node	the node to stop monitoring
+   */
+  protected void unwatch(TreeNode node) {
+    if (m_Watcher != null)
+      m_Watcher.unregisterAll(node);
+  }
+
+  /**
+   * Starts the eviction of collapsed nodes and the monitoring of expanded
+   * directories (if enabled) when the tree gets displayed.
+   */
+  @Override
+  public void addNotify() {
+    super.addNotify();
+    m_Evictor.update();
+    if (m_LiveMonitoring && (m_Watcher == null))
+      startWatcher();
+  }
+
+  /**
+   * Stops the eviction of collapsed nodes, the monitoring of expanded
+   * directories, any expansion in progress and any prefetching when the
+   * tree is no longer displayed.
+   */
+  @Override
+  public void removeNotify() {
+    m_Evictor.stop();
+    stopWatcher();
+    m_Expander.cancel();
+    m_Prefetcher.clear();
+    super.removeNotify();
+  }
+
+  /**
+   * Sets the delay after which the sub-directories of collapsed nodes get
+   * unloaded. Nodes on the path of the selection/current directory never
+   * get unloaded.
+   *
+   * @param value	the delay in msec, -1 to never unload
+   */
+  public void setEvictionDelay(long value) {
+    m_Evictor.setDelay(value);
+  }
+
+  /**
+   * Returns the delay after which the sub-directories of collapsed nodes get
+   * unloaded.
+   *
+   * @return		the delay in msec, -1 if never unloaded
+   */
+  public long getEvictionDelay() {
+    return m_Evictor.getDelay();
+  }
+
+  /**
+   * Sets the maximum number of directory nodes to keep in memory. When
+   * exceeded, the sub-directories of the least recently collapsed nodes
+   * get unloaded. Expanded nodes and nodes on the path of the
+   * selection/current directory never get unloaded.
+   *
+   * @param value	the maximum number of nodes, -1 for unlimited
+   */
+  public void setNodeBudget(int value) {
+    m_Evictor.setBudget(value);
+  }
+
+  /**
+   * Returns the maximum number of directory nodes to keep in memory.
+   *
+   * @return		the maximum number of nodes, -1 for unlimited
+   */
+  public int getNodeBudget() {
+    return m_Evictor.getBudget();
+  }
+
+  /**
+   * Sets the interval in which to check for nodes to unload.
+   *
+   * @param value	the interval in msec
+   */
+  public void setEvictionInterval(int value) {
+    m_Evictor.setInterval(value);
+  }
+
+  /**
+   * Returns the interval in which to check for nodes to unload.
+   *
+   * @return		the interval in msec
+   */
+  public int getEvictionInterval() {
+    return m_Evictor.getInterval();
+  }
+
+  /**
+   * Returns the evictor for unloading collapsed nodes.
+   *
+   * @return		the evictor
+   */
+  public NodeEvictor getEvictor() {
+    return m_Evictor;
+  }
+
+  /**
+   * Unloads collapsed nodes according to eviction delay and node budget
+   * right away, rather than waiting for the next periodic check.
+   */
+  public void evict() {
+    m_Evictor.check();
+  }
+
+  /**
+   * Expands all the directories below the specified one. The directory
+   * and the ones below get listed in parallel in the background and get
+   * expanded in several steps afterwards; only its parents get loaded
+   * right away, if necessary. Limited by {@link #getExpandAllMaxDepth()},
+   * {@link #getExpandAllMaxNodes()} and {@link #getExpandAllMaxRows()}.
+   *
+   * @param dir		the directory to expand
+   * @return		true if the directory was found and its expansion started
+   * @see		#cancelExpandAll()
+   */
+  public boolean expandAllBelow(File dir) {
+    DirectoryNode	node;
+
+    // the directory itself gets listed by the expander in the background
+    node = expandDirectory(dir, false);
+    if (node == null)
+      return false;
+
+    m_Expander.expand(node);
+    return true;
+  }
+
+  /**
+   * Cancels the expansion started with {@link #expandAllBelow(File)}, if
+   * still in progress. Already expanded directories stay expanded.
+   */
+  public void cancelExpandAll() {
+    m_Expander.cancel();
+  }
+
+  /**
+   * Returns whether an expansion started with {@link #expandAllBelow(File)}
+   * is still in progress.
+   *
+   * @return		true if in progress
+   */
+  public boolean isExpandingAll() {
+    return m_Expander.isRunning();
+  }
+
+  /**
+   * Sets the maximum number of levels to expand with {@link #expandAllBelow(File)}.
+   *
+   * @param value	the maximum depth
+   */
+  public void setExpandAllMaxDepth(int value) {
+    m_Expander.setMaxDepth(value);
+  }
+
+  /**
+   * Returns the maximum number of levels to expand with {@link #expandAllBelow(File)}.
+   *
+   * @return		the maximum depth
+   */
+  public int getExpandAllMaxDepth() {
+    return m_Expander.getMaxDepth();
+  }
+
+  /**
+   * Sets the maximum number of directories to load with {@link #expandAllBelow(File)}.
+   *
+   * @param value	the maximum number
+   */
+  public void setExpandAllMaxNodes(int value) {
+    m_Expander.setMaxNodes(value);
+  }
+
+  /**
+   * Returns the maximum number of directories to load with {@link #expandAllBelow(File)}.
+   *
+   * @return		the maximum number
+   */
+  public int getExpandAllMaxNodes() {
+    return m_Expander.getMaxNodes();
+  }
+
+  /**
+   * Sets the maximum number of rows that {@link #expandAllBelow(File)} may
+   * add to the tree. Deeper levels get loaded, but stay collapsed.
+   *
+   * @param value	the maximum number
+   */
+  public void setExpandAllMaxRows(int value) {
+    m_Expander.setMaxRows(value);
+  }
+
+  /**
+   * Returns the maximum number of rows that {@link #expandAllBelow(File)} may
+   * add to the tree.
+   *
+   * @return		the maximum number
+   */
+  public int getExpandAllMaxRows() {
+    return m_Expander.getMaxRows();
+  }
+
+  /**
+   * Returns the expander used by {@link #expandAllBelow(File)}.
+   *
+   * @return		the expander
+   */
+  public SubtreeExpander getExpander() {
+    return m_Expander;
+  }
+
+  /**
+   * Sets the number of levels to list in the background below the selected
+   * or expanded directory, e.g., 2 for its sub-directories and their
+   * sub-directories. Later expansions use these listings rather than
+   * accessing the file system.
+   *
+   * @param value	the number of levels, 0 to disable
+   */
+  public void setPrefetchDepth(int value) {
+    m_Prefetcher.setDepth(value);
+  }
+
+  /**
+   * Returns the number of levels to list in the background below the
+   * selected or expanded directory.
+   *
+   * @return		the number of levels, 0 if disabled
+   */
+  public int getPrefetchDepth() {
+    return m_Prefetcher.getDepth();
+  }
+
+  /**
+   * Sets the maximum number of directory listings to keep/make in the
+   * background.
+   *
+   * @param value	the maximum number
+   */
+  public void setPrefetchMaxEntries(int value) {
+    m_Prefetcher.setMaxEntries(value);
+  }
+
+  /**
+   * Returns the maximum number of directory listings to keep/make in the
+   * background.
+   *
+   * @return		the maximum number
+   */
+  public int getPrefetchMaxEntries() {
+    return m_Prefetcher.getMaxEntries();
+  }
+
+  /**
+   * Sets the number of threads for listing directories in the background.
+   *
+   * @param value	the number of threads
+   */
+  public void setPrefetchThreads(int value) {
+    m_Prefetcher.setNumThreads(value);
+  }
+
+  /**
+   * Returns the number of threads for listing directories in the background.
+   *
+   * @return		the number of threads
+   */
+  public int getPrefetchThreads() {
+    return m_Prefetcher.getNumThreads();
+  }
+
+  /**
+   * Returns the prefetcher, e.g., for its hit/miss statistics.
+   *
+   * @return		the prefetcher
+   */
+  public DirectoryPrefetcher getPrefetcher() {
+    return m_Prefetcher;
+  }
 }
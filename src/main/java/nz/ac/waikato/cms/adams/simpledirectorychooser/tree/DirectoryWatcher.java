@@ -0,0 +1,240 @@
+/*
+ * DirectoryWatcher.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.tree;
+
+import javax.swing.SwingUtilities;
+import javax.swing.tree.TreeNode;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Monitors the directories of expanded nodes using a {@link WatchService}
+ * and applies creations/deletions as fine-grained model updates.
+ * Registration and event handling happen on the event dispatch thread,
+ * only the waiting for events is done in a background thread.
+ * <br>
+ * Nodes for the same directory (e.g., overlapping roots) share the watch
+ * key, which only gets cancelled once none of them is monitored anymore.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class DirectoryWatcher {
+
+  /** the tree this watcher belongs to. */
+  protected DirectoryTree m_Owner;
+
+  /** the watch service in use. */
+  protected WatchService m_Service;
+
+  /** the thread waiting for events. */
+  protected Thread m_Thread;
+
+  /** the nodes per watch key. */
+  protected Map<WatchKey, Set<DirectoryNode>> m_Nodes;
+
+  /** the watch keys per node. */
+  protected Map<DirectoryNode, WatchKey> m_Keys;
+
+  /**
+   * Initializes the watcher.
+   *
+   * @param owner	the tree this watcher belongs to
+   * @throws IOException	if the watch service cannot be created
+   */
+  public DirectoryWatcher(DirectoryTree owner) throws IOException {
+    m_Owner   = owner;
+    m_Nodes   = new HashMap<>();
+    m_Keys    = new HashMap<>();
+    m_Service = FileSystems.getDefault().newWatchService();
+    m_Thread  = new Thread(this::waitForEvents, getClass().getSimpleName());
+    m_Thread.setDaemon(true);
+    m_Thread.start();
+  }
+
+  /**
+   * Waits for events and hands them over to the event dispatch thread.
+   */
+  protected void waitForEvents() {
+    WatchKey	key;
+
+    while (true) {
+      try {
+	key = m_Service.take();
+      }
+      catch (ClosedWatchServiceException | InterruptedException e) {
+	break;
+      }
+      final WatchKey fKey = key;
+      final List<WatchEvent<?>> events = key.pollEvents();
+      key.reset();
+      SwingUtilities.invokeLater(() -> processEvents(fKey, events));
+    }
+  }
+
+  /**
+   * Processes the events of a watch key.
+   *
+   * @param key		the key the events belong to
+   * @param events	the events to process
+   */
+  protected void processEvents(WatchKey key, List<WatchEvent<?>> events) {
+    Set<DirectoryNode>	nodes;
+
+    nodes = m_Nodes.get(key);
+    if (nodes == null)
+      return;
+
+    // updating a node can unregister nodes
+    for (DirectoryNode node: new ArrayList<>(nodes))
+      processEvents(node, events);
+  }
+
+  /**
+   * Applies the events to the node.
+   *
+   * @param node	the node to update
+   * @param events	the events to process
+   */
+  protected void processEvents(DirectoryNode node, List<WatchEvent<?>> events) {
+    File		dir;
+    List<File>		created;
+    List<String>	deleted;
+    boolean		overflow;
+
+    if (!node.isInitialized() || !node.isAttached())
+      return;
+
+    dir      = node.getDirectory();
+    created  = new ArrayList<>();
+    deleted  = new ArrayList<>();
+    overflow = false;
+    for (WatchEvent<?> event: events) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+	overflow = true;
+	break;
+      }
+      else if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+	created.add(new File(dir, ((Path) event.context()).toString()));
+      }
+      else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+	deleted.add(((Path) event.context()).toString());
+      }
+    }
+
+    if (overflow)
+      node.rescan();
+    else
+      node.update(created, deleted);
+  }
+
+  /**
+   * Starts monitoring the directory of the node. Nodes that are already
+   * monitored get skipped.
+   *
+   * @param node	the node to monitor
+   */
+  public void register(DirectoryNode node) {
+    WatchKey	key;
+
+    if (m_Keys.containsKey(node))
+      return;
+
+    try {
+      key = node.getDirectory().toPath().register(
+	m_Service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
+      m_Keys.put(node, key);
+      m_Nodes.computeIfAbsent(key, (WatchKey k) -> new HashSet<>()).add(node);
+    }
+    catch (Exception e) {
+      // not accessible or service closed
+    }
+  }
+
+  /**
+   * Stops monitoring the directory of the node. The directory itself stays
+   * monitored as long as other nodes for it are.
+   *
+   * @param node	the node to stop monitoring
+   */
+  public void unregister(DirectoryNode node) {
+    WatchKey		key;
+    Set<DirectoryNode>	nodes;
+
+    key = m_Keys.remove(node);
+    if (key == null)
+      return;
+    nodes = m_Nodes.get(key);
+    if (nodes != null) {
+      nodes.remove(node);
+      if (!nodes.isEmpty())
+	return;
+      m_Nodes.remove(key);
+    }
+    key.cancel();
+  }
+
+  /**
+   * Stops monitoring the node and all its (loaded) descendants.
+   *
+   * @param node	the top-level node to stop monitoring
+   */
+  public void unregisterAll(TreeNode node) {
+    int		i;
+
+    if (m_Keys.isEmpty())
+      return;
+
+    if (node instanceof DirectoryNode)
+      unregister((DirectoryNode) node);
+    for (i = 0; i < node.getChildCount(); i++)
+      unregisterAll(node.getChildAt(i));
+  }
+
+  /**
+   * Stops monitoring all directories.
+   */
+  public void clear() {
+    for (WatchKey key: m_Nodes.keySet())
+      key.cancel();
+    m_Nodes.clear();
+    m_Keys.clear();
+  }
+
+  /**
+   * Returns the number of directories currently being monitored.
+   *
+   * @return		the number of watch keys
+   */
+  public int getWatchCount() {
+    return m_Nodes.size();
+  }
+
+  /**
+   * Stops monitoring altogether.
+   */
+  public void close() {
+    clear();
+    try {
+      m_Service.close();
+    }
+    catch (Exception e) {
+      // ignored
+    }
+  }
+}
@@ -1,6 +1,6 @@
 /*
  * DummyNode.java
- * Copyright (C) 2022 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2022-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package nz.ac.waikato.cms.adams.simpledirectorychooser.tree;
@@ -15,4 +15,42 @@ import javax.swing.tree.DefaultMutableTreeNode;
 public class DummyNode
   extends DefaultMutableTreeNode {
 
+  /** the text to display while the sub-directories are being loaded. */
+  public final static String LOADING = "Loading\u2026";
+
+  /** the shared placeholder for nodes that haven't been expanded yet. */
+  public final static DummyNode PLACEHOLDER = new DummyNode();
+
+  /** the shared placeholder for nodes whose sub-directories are being loaded. */
+  public final static DummyNode LOADING_PLACEHOLDER = new DummyNode(true);
+
+  /** whether the parent node is being loaded. */
+  protected final boolean m_Loading;
+
+  /**
+   * Initializes the node.
+   */
+  public DummyNode() {
+    this(false);
+  }
+
+  /**
+   * Initializes the node. The loading state cannot be changed afterwards,
+   * as the placeholders are shared by all trees.
+   *
+   * @param loading	whether the parent node is being loaded
+   */
+  public DummyNode(boolean loading) {
+    super(loading ? LOADING : null);
+    m_Loading = loading;
+  }
+
+  /**
+   * Returns whether the parent node is currently being loaded.
+   *
+   * @return		true if loading
+   */
+  public boolean isLoading() {
+    return m_Loading;
+  }
 }
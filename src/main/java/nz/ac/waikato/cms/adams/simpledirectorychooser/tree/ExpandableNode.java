@@ -1,14 +1,25 @@
 /*
  * ExpandableNode.java
- * Copyright (C) 2022 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2022-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package nz.ac.waikato.cms.adams.simpledirectorychooser.tree;
 
 import javax.swing.tree.DefaultMutableTreeNode;
+import javax.swing.tree.MutableTreeNode;
+import javax.swing.tree.TreeNode;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * Ancestor for nodes that can be expanded.
+ * <br>
+ * Stores the children in an exactly sized array rather than in the
+ * synchronized Vector of {@link DefaultMutableTreeNode}. Derived classes
+ * can replace all the children in one go via {@link #setChildren(TreeNode[])}.
+ * Keeps track of the number of directory nodes below the node.
  *
  * @author fracpete (fracpete at waikato dot ac dot nz)
  */
@@ -18,6 +29,15 @@ public abstract class ExpandableNode
   /** the owner. */
   protected DirectoryTree m_Owner;
 
+  /** the children, null if none. */
+  protected TreeNode[] m_Children;
+
+  /** the directory children indexed by name, null if not built yet or outdated. */
+  protected Map<String, DirectoryNode> m_ChildIndex;
+
+  /** the number of directory nodes below this node. */
+  protected int m_DescendantCount;
+
   /**
    * Initializes the node.
    *
@@ -32,35 +52,355 @@ public abstract class ExpandableNode
   }
 
   /**
-   * Expands the node if necessary
+   * Expands the node if necessary. Loads the sub-directories in the
+   * background if the owning tree uses asynchronous loading.
+   *
+   * @see DirectoryTree#isAsyncLoading()
    */
-  public abstract void expandIfNecessary();
+  public void expandIfNecessary() {
+    expandIfNecessary(getOwner().isAsyncLoading());
+  }
 
   /**
-   * Expands specified directory (if available).
+   * Expands the node if necessary.
    *
-   * @param dir 	the directory to expand (just the directory name)
-   * @return		the directory node if successfully expanded
+   * @param async	whether to load the sub-directories in the background
    */
-  public DirectoryNode expand(String dir) {
-    DirectoryNode	result;
-    DirectoryNode	child;
-    int			i;
+  public abstract void expandIfNecessary(boolean async);
 
-    result = null;
+  /**
+   * Refreshes the loaded sub-directories incrementally.
+   * Default implementation refreshes all expandable children.
+   */
+  public void refresh() {
+    int		i;
 
     for (i = 0; i < getChildCount(); i++) {
-      if (getChildAt(i) instanceof DirectoryNode) {
-	child = (DirectoryNode) getChildAt(i);
-	if (child.getName().equals(dir)) {
-	  result = child;
-	  break;
-	}
+      if (getChildAt(i) instanceof ExpandableNode)
+	((ExpandableNode) getChildAt(i)).refresh();
+    }
+  }
+
+  /**
+   * Returns the number of children.
+   *
+   * @return		the number of children
+   */
+  @Override
+  public int getChildCount() {
+    return (m_Children == null) ? 0 : m_Children.length;
+  }
+
+  /**
+   * Returns the child at the specified index.
+   *
+   * @param index	the index of the child
+   * @return		the child
+   * @throws ArrayIndexOutOfBoundsException	if the index is out of bounds
+   */
+  @Override
+  public TreeNode getChildAt(int index) {
+    if (m_Children == null)
+      throw new ArrayIndexOutOfBoundsException("node has no children");
+    return m_Children[index];
+  }
+
+  /**
+   * Returns the index of the child.
+   *
+   * @param aChild	the child to look for
+   * @return		the index, -1 if not a child
+   * @throws IllegalArgumentException	if the child is null
+   */
+  @Override
+  public int getIndex(TreeNode aChild) {
+    int		i;
+
+    if (aChild == null)
+      throw new IllegalArgumentException("argument is null");
+    if ((m_Children == null) || (aChild.getParent() != this))
+      return -1;
+
+    for (i = 0; i < m_Children.length; i++) {
+      if (m_Children[i] == aChild)
+	return i;
+    }
+
+    return -1;
+  }
+
+  /**
+   * Returns an enumeration of the children.
+   *
+   * @return		the children
+   */
+  @Override
+  public Enumeration<TreeNode> children() {
+    return new Enumeration<TreeNode>() {
+      protected int m_Index = 0;
+
+      @Override
+      public boolean hasMoreElements() {
+	return (m_Index < getChildCount());
+      }
+
+      @Override
+      public TreeNode nextElement() {
+	if (m_Index >= getChildCount())
+	  throw new NoSuchElementException("No more elements");
+	return getChildAt(m_Index++);
+      }
+    };
+  }
+
+  /**
+   * Returns the first child.
+   *
+   * @return		the child
+   * @throws NoSuchElementException	if no children
+   */
+  @Override
+  public TreeNode getFirstChild() {
+    if (getChildCount() == 0)
+      throw new NoSuchElementException("node has no children");
+    return getChildAt(0);
+  }
+
+  /**
+   * Returns the last child.
+   *
+   * @return		the child
+   * @throws NoSuchElementException	if no children
+   */
+  @Override
+  public TreeNode getLastChild() {
+    if (getChildCount() == 0)
+      throw new NoSuchElementException("node has no children");
+    return getChildAt(getChildCount() - 1);
+  }
+
+  /**
+   * Inserts the child and invalidates the name index.
+   *
+   * @param newChild	the child to insert
+   * @param childIndex	the index to insert the child at
+   */
+  @Override
+  public void insert(MutableTreeNode newChild, int childIndex) {
+    MutableTreeNode	oldParent;
+    TreeNode[]		children;
+    int			count;
+
+    if (!allowsChildren)
+      throw new IllegalStateException("node does not allow children");
+    else if (newChild == null)
+      throw new IllegalArgumentException("new child is null");
+    else if (isNodeAncestor(newChild))
+      throw new IllegalArgumentException("new child is an ancestor");
+
+    oldParent = (MutableTreeNode) newChild.getParent();
+    if (oldParent != null)
+      oldParent.remove(newChild);
+
+    count = (m_Children == null) ? 0 : m_Children.length;
+    if ((childIndex < 0) || (childIndex > count))
+      throw new ArrayIndexOutOfBoundsException(childIndex + " > " + count);
+    children = new TreeNode[count + 1];
+    if (count > 0) {
+      System.arraycopy(m_Children, 0, children, 0, childIndex);
+      System.arraycopy(m_Children, childIndex, children, childIndex + 1, count - childIndex);
+    }
+    children[childIndex] = newChild;
+    m_Children = children;
+    newChild.setParent(this);
+    invalidateChildIndex();
+    updateDescendantCount(weigh(newChild));
+  }
+
+  /**
+   * Removes the child and invalidates the name index.
+   *
+   * @param childIndex	the index of the child to remove
+   */
+  @Override
+  public void remove(int childIndex) {
+    MutableTreeNode	child;
+    TreeNode[]		children;
+
+    child = (MutableTreeNode) m_Children[childIndex];
+    if (m_Children.length == 1) {
+      children = null;
+    }
+    else {
+      children = new TreeNode[m_Children.length - 1];
+      System.arraycopy(m_Children, 0, children, 0, childIndex);
+      System.arraycopy(m_Children, childIndex + 1, children, childIndex, m_Children.length - childIndex - 1);
+    }
+    m_Children = children;
+    child.setParent(null);
+    invalidateChildIndex();
+    updateDescendantCount(-weigh(child));
+  }
+
+  /**
+   * Removes all children.
+   */
+  @Override
+  public void removeAllChildren() {
+    TreeNode[]	children;
+
+    children = m_Children;
+    setChildren(null);
+    if (children != null) {
+      for (TreeNode child: children)
+	((MutableTreeNode) child).setParent(null);
+    }
+  }
+
+  /**
+   * Replaces all the children in one go. The parent of the new children
+   * must already be set to this node, the old children are not modified.
+   *
+   * @param children	the new children, null or empty if none
+   */
+  protected void setChildren(TreeNode[] children) {
+    int		delta;
+
+    if ((children != null) && (children.length == 0))
+      children = null;
+    delta      = weigh(children) - weigh(m_Children);
+    m_Children = children;
+    invalidateChildIndex();
+    updateDescendantCount(delta);
+  }
+
+  /**
+   * Returns the number of directory nodes the child represents, i.e., the
+   * child itself and the directory nodes below it.
+   *
+   * @param child	the child to weigh
+   * @return		the number of directory nodes
+   */
+  protected static int weigh(TreeNode child) {
+    if (child instanceof DirectoryNode)
+      return 1 + ((DirectoryNode) child).m_DescendantCount;
+    else
+      return 0;
+  }
+
+  /**
+   * Returns the number of directory nodes the children represent.
+   *
+   * @param children	the children to weigh, can be null
+   * @return		the number of directory nodes
+   * @see		#weigh(TreeNode)
+   */
+  protected static int weigh(TreeNode[] children) {
+    int		result;
+
+    result = 0;
+    if (children != null) {
+      for (TreeNode child: children)
+	result += weigh(child);
+    }
+
+    return result;
+  }
+
+  /**
+   * Adds the delta to the number of directory nodes below this node and
+   * below its ancestors.
+   *
+   * @param delta	the change in number of directory nodes
+   */
+  protected void updateDescendantCount(int delta) {
+    TreeNode	node;
+
+    if (delta == 0)
+      return;
+
+    node = this;
+    while (node instanceof ExpandableNode) {
+      ((ExpandableNode) node).m_DescendantCount += delta;
+      node = node.getParent();
+    }
+  }
+
+  /**
+   * Returns the number of directory nodes below this node, i.e., of all
+   * loaded descendants. Does not traverse the nodes.
+   *
+   * @return		the number of directory nodes
+   */
+  public int getDescendantCount() {
+    return m_DescendantCount;
+  }
+
+  /**
+   * Returns a shallow copy of the node, without parent and children.
+   *
+   * @return		the copy
+   */
+  @Override
+  public Object clone() {
+    ExpandableNode	result;
+
+    result = (ExpandableNode) super.clone();
+    result.m_Children        = null;
+    result.m_ChildIndex      = null;
+    result.m_DescendantCount = 0;
+
+    return result;
+  }
+
+  /**
+   * Invalidates the name index of the children. Must be called whenever
+   * the children get modified without going through insert/remove.
+   */
+  protected void invalidateChildIndex() {
+    m_ChildIndex = null;
+  }
+
+  /**
+   * Returns the directory child with the specified name. The name index
+   * gets built on first access after the children changed, subsequent
+   * lookups are hash lookups.
+   *
+   * @param dir		the name of the directory (just the directory name)
+   * @return		the child node, null if not found
+   * @see DirectoryNode#getName()
+   */
+  public DirectoryNode getChild(String dir) {
+    Map<String, DirectoryNode>	index;
+    TreeNode			child;
+    int				i;
+
+    index = m_ChildIndex;
+    if (index == null) {
+      index = new HashMap<>(getChildCount() * 4 / 3 + 1);
+      for (i = 0; i < getChildCount(); i++) {
+	child = getChildAt(i);
+	if (child instanceof DirectoryNode)
+	  index.putIfAbsent(((DirectoryNode) child).getName(), (DirectoryNode) child);
       }
+      m_ChildIndex = index;
     }
 
+    return index.get(dir);
+  }
+
+  /**
+   * Expands specified directory (if available).
+   *
+   * @param dir 	the directory to expand (just the directory name)
+   * @return		the directory node if successfully expanded
+   */
+  public DirectoryNode expand(String dir) {
+    DirectoryNode	result;
+
+    result = getChild(dir);
     if (result != null)
-      result.expandIfNecessary();
+      result.expandIfNecessary(false);
 
     return result;
   }
@@ -1,6 +1,6 @@
 /*
  * MultiRootNode.java
- * Copyright (C) 2022 University of Waikato, Hamilton, New Zealand
+ * Copyright (C) 2022-2026 University of Waikato, Hamilton, New Zealand
  */
 
 package nz.ac.waikato.cms.adams.simpledirectorychooser.tree;
@@ -45,13 +45,15 @@ public class MultiRootNode
   }
 
   /**
-   * Expands the node if necessary
+   * Expands the node if necessary.
+   *
+   * @param async	whether to load the sub-directories in the background
    */
   @Override
-  public void expandIfNecessary() {
+  public void expandIfNecessary(boolean async) {
     int		i;
 
     for (i = 0; i < getChildCount(); i++)
-      ((DirectoryNode) getChildAt(i)).expandIfNecessary();
+      ((DirectoryNode) getChildAt(i)).expandIfNecessary(async);
   }
 }
@@ -0,0 +1,384 @@
+/*
+ * NodeEvictor.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.tree;
+
+import javax.swing.Timer;
+import javax.swing.tree.TreeNode;
+import javax.swing.tree.TreePath;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unloads the sub-directories of collapsed nodes, resetting them to the
+ * uninitialized state. Nodes get unloaded when they have been collapsed
+ * for longer than the eviction delay or, least recently collapsed first,
+ * when the tree holds more nodes than the node budget. Nodes on the path of
+ * the selection or of the current directory never get unloaded, neither do
+ * nodes that are currently being loaded.
+ * <br>
+ * The checks are performed periodically on the event dispatch thread, using
+ * a {@link Timer} that only runs while the tree is displayed. They only
+ * look at the loaded nodes that are not expanded, which get recorded as
+ * they get loaded/collapsed; the number of nodes is maintained by the
+ * nodes themselves.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class NodeEvictor {
+
+  /** the default interval in msec between checks. */
+  public final static int DEFAULT_INTERVAL = 5000;
+
+  /** the tree this evictor belongs to. */
+  protected DirectoryTree m_Owner;
+
+  /** the delay in msec after which to unload collapsed nodes, -1 if never. */
+  protected long m_Delay;
+
+  /** the maximum number of directory nodes, -1 if unlimited. */
+  protected int m_Budget;
+
+  /** the timer for the checks. */
+  protected Timer m_Timer;
+
+  /** the loaded nodes that are not expanded, with the timestamps when they got collapsed/loaded. */
+  protected Map<DirectoryNode, Long> m_Collapsed;
+
+  /** the number of unloaded nodes. */
+  protected long m_EvictionCount;
+
+  /**
+   * Initializes the evictor. Disabled by default.
+   *
+   * @param owner	the tree this evictor belongs to
+   */
+  public NodeEvictor(DirectoryTree owner) {
+    m_Owner     = owner;
+    m_Delay     = -1;
+    m_Budget    = -1;
+    m_Collapsed = new HashMap<>();
+    m_Timer     = new Timer(DEFAULT_INTERVAL, e -> check());
+    m_Timer.setRepeats(true);
+  }
+
+  /**
+   * Sets the delay after which to unload collapsed nodes.
+   *
+   * @param value	the delay in msec, -1 if never
+   */
+  public void setDelay(long value) {
+    boolean	enabled;
+
+    enabled = isEnabled();
+    m_Delay = value;
+    if (!enabled && isEnabled())
+      record();
+    update();
+  }
+
+  /**
+   * Returns the delay after which to unload collapsed nodes.
+   *
+   * @return		the delay in msec, -1 if never
+   */
+  public long getDelay() {
+    return m_Delay;
+  }
+
+  /**
+   * Sets the maximum number of directory nodes the tree should hold.
+   *
+   * @param value	the budget, -1 if unlimited
+   */
+  public void setBudget(int value) {
+    boolean	enabled;
+
+    enabled  = isEnabled();
+    m_Budget = value;
+    if (!enabled && isEnabled())
+      record();
+    update();
+  }
+
+  /**
+   * Returns the maximum number of directory nodes the tree should hold.
+   *
+   * @return		the budget, -1 if unlimited
+   */
+  public int getBudget() {
+    return m_Budget;
+  }
+
+  /**
+   * Sets the interval between checks.
+   *
+   * @param value	the interval in msec
+   */
+  public void setInterval(int value) {
+    m_Timer.setDelay(value);
+    m_Timer.setInitialDelay(value);
+  }
+
+  /**
+   * Returns the interval between checks.
+   *
+   * @return		the interval in msec
+   */
+  public int getInterval() {
+    return m_Timer.getDelay();
+  }
+
+  /**
+   * Returns whether eviction is enabled, i.e., a delay or budget is set.
+   *
+   * @return		true if enabled
+   */
+  public boolean isEnabled() {
+    return (m_Delay > -1) || (m_Budget > -1);
+  }
+
+  /**
+   * Starts the timer if enabled and the tree is displayed, otherwise stops it.
+   */
+  public void update() {
+    if (isEnabled() && m_Owner.isDisplayable()) {
+      if (!m_Timer.isRunning())
+	m_Timer.start();
+    }
+    else {
+      stop();
+    }
+  }
+
+  /**
+   * Stops the timer.
+   */
+  public void stop() {
+    if (m_Timer.isRunning())
+      m_Timer.stop();
+  }
+
+  /**
+   * Records that the node got collapsed.
+   *
+   * @param node	the collapsed node
+   */
+  public void collapsed(DirectoryNode node) {
+    if (isEnabled())
+      m_Collapsed.put(node, System.currentTimeMillis());
+  }
+
+  /**
+   * Records that the sub-directories of the node got loaded. The node counts
+   * as collapsed until it gets expanded.
+   *
+   * @param node	the loaded node
+   */
+  public void loaded(DirectoryNode node) {
+    if (isEnabled())
+      m_Collapsed.putIfAbsent(node, System.currentTimeMillis());
+  }
+
+  /**
+   * Records that the node got expanded.
+   *
+   * @param node	the expanded node
+   */
+  public void expanded(DirectoryNode node) {
+    m_Collapsed.remove(node);
+  }
+
+  /**
+   * Forgets all recorded nodes, e.g., when the tree gets rebuilt.
+   */
+  public void clear() {
+    m_Collapsed.clear();
+  }
+
+  /**
+   * Records all loaded nodes as collapsed, e.g., when eviction gets enabled.
+   * Expanded nodes get discarded with the next check.
+   */
+  protected void record() {
+    Object	root;
+
+    root = m_Owner.getModel().getRoot();
+    if (root instanceof TreeNode)
+      record((TreeNode) root, System.currentTimeMillis());
+  }
+
+  /**
+   * Records the loaded directory nodes below the node as collapsed.
+   *
+   * @param node	the node to start from
+   * @param now		the timestamp to use
+   */
+  protected void record(TreeNode node, long now) {
+    TreeNode	child;
+    int		i;
+
+    for (i = 0; i < node.getChildCount(); i++) {
+      child = node.getChildAt(i);
+      if ((child instanceof DirectoryNode) && ((DirectoryNode) child).isInitialized()) {
+	m_Collapsed.putIfAbsent((DirectoryNode) child, now);
+	record(child, now);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of directory nodes in the tree.
+   *
+   * @return		the number of nodes
+   */
+  public int getNodeCount() {
+    Object	root;
+
+    root = m_Owner.getModel().getRoot();
+    if (root instanceof ExpandableNode)
+      return ((ExpandableNode) root).getDescendantCount();
+    else
+      return 0;
+  }
+
+  /**
+   * Returns the number of nodes that got unloaded so far.
+   *
+   * @return		the number of unloaded nodes
+   */
+  public long getEvictionCount() {
+    return m_EvictionCount;
+  }
+
+  /**
+   * Determines the nodes that must not be unloaded: the ancestors of the
+   * selected nodes and of the current directory (including themselves).
+   * Only loaded nodes get looked at, nothing gets loaded.
+   *
+   * @return		the protected nodes
+   */
+  protected Set<TreeNode> getProtected() {
+    Set<TreeNode>	result;
+    TreePath[]		paths;
+    File		current;
+    ExpandableNode	currentNode;
+
+    result  = new HashSet<>();
+    current = m_Owner.getCurrentDirectory();
+    if ((current != null) && (m_Owner.getModel().getRoot() instanceof ExpandableNode)) {
+      currentNode = (ExpandableNode) m_Owner.getModel().getRoot();
+      result.add(currentNode);
+      for (String part: m_Owner.toPathElements(current.getAbsoluteFile())) {
+	currentNode = currentNode.getChild(part);
+	if (currentNode == null)
+	  break;
+	result.add(currentNode);
+      }
+    }
+
+    paths = m_Owner.getSelectionPaths();
+    if (paths != null) {
+      for (TreePath path: paths) {
+	for (Object node: path.getPath())
+	  result.add((TreeNode) node);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Unloads the sub-directories of the node.
+   *
+   * @param node	the node to unload
+   * @return		the number of nodes that got unloaded
+   */
+  protected int evict(DirectoryNode node) {
+    int		result;
+
+    result = node.getDescendantCount();
+    m_Owner.unwatch(node);
+    node.unload();
+    m_Collapsed.remove(node);
+    m_EvictionCount += result;
+
+    return result;
+  }
+
+  /**
+   * Unloads collapsed nodes according to delay and budget. Only visible
+   * collapsed nodes get unloaded, which unloads any collapsed nodes below
+   * them as well. Must be called from the event dispatch thread.
+   */
+  public void check() {
+    Iterator<Map.Entry<DirectoryNode, Long>>	iter;
+    Map.Entry<DirectoryNode, Long>		entry;
+    DirectoryNode				node;
+    TreePath					path;
+    List<DirectoryNode>				candidates;
+    List<DirectoryNode>				remaining;
+    Set<TreeNode>				protect;
+    long					now;
+    int						total;
+
+    if (!isEnabled() || !(m_Owner.getModel().getRoot() instanceof TreeNode))
+      return;
+
+    now       = System.currentTimeMillis();
+    protect   = getProtected();
+    total     = getNodeCount();
+    remaining = new ArrayList<>();
+    iter      = m_Collapsed.entrySet().iterator();
+    while (iter.hasNext()) {
+      entry = iter.next();
+      node  = entry.getKey();
+      // unloaded or removed in the meantime
+      if (!node.isInitialized() || !node.isAttached()) {
+	iter.remove();
+	continue;
+      }
+      if (node.isLoading() || protect.contains(node))
+	continue;
+      path = new TreePath(node.getPath());
+      if (m_Owner.isExpanded(path)) {
+	iter.remove();
+	continue;
+      }
+      // hidden below a collapsed node
+      if ((path.getParentPath() != null) && !m_Owner.isExpanded(path.getParentPath()))
+	continue;
+      remaining.add(node);
+    }
+
+    // delay
+    if (m_Delay > -1) {
+      candidates = remaining;
+      remaining  = new ArrayList<>();
+      for (DirectoryNode candidate: candidates) {
+	if (now - m_Collapsed.get(candidate) >= m_Delay)
+	  total -= evict(candidate);
+	else
+	  remaining.add(candidate);
+      }
+    }
+
+    // budget
+    if ((m_Budget > -1) && (total > m_Budget)) {
+      remaining.sort((n1, n2) -> Long.compare(m_Collapsed.get(n1), m_Collapsed.get(n2)));
+      for (DirectoryNode candidate: remaining) {
+	if (total <= m_Budget)
+	  break;
+	total -= evict(candidate);
+      }
+    }
+  }
+}
@@ -0,0 +1,527 @@
+/*
+ * SubtreeExpander.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.tree;
+
+import nz.ac.waikato.cms.adams.simpledirectorychooser.scan.DirectoryScanner;
+import nz.ac.waikato.cms.adams.simpledirectorychooser.sort.DirectorySorter;
+
+import javax.swing.SwingUtilities;
+import javax.swing.tree.TreePath;
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Expands all the directories below a node. The sub-directories get listed
+ * in parallel on a {@link ForkJoinPool}, limited by depth and number of
+ * directories. Once the listing has finished, the nodes get initialized
+ * on the event dispatch thread in time slices, to keep the tree responsive.
+ * Only as many levels get expanded as fit within the maximum number of rows,
+ * the remaining nodes stay collapsed but need no listing when expanded
+ * later on. Starting another expansion, rebuilding the tree or
+ * calling {@link #cancel()} discards any outstanding work.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class SubtreeExpander {
+
+  /** the default maximum number of levels to expand. */
+  public final static int DEFAULT_MAX_DEPTH = 32;
+
+  /** the default maximum number of directories to load. */
+  public final static int DEFAULT_MAX_NODES = 100000;
+
+  /** the default maximum number of rows to add to the tree by expanding. */
+  public final static int DEFAULT_MAX_ROWS = 2000;
+
+  /** the default number of threads for listing directories. */
+  public final static int DEFAULT_PARALLELISM = 8;
+
+  /** the time in msec to spend per update on the event dispatch thread. */
+  public final static int MERGE_SLICE = 50;
+
+  /**
+   * The sorted sub-directories of a directory and, if listed, their
+   * sub-directories.
+   */
+  protected static class Listing {
+
+    /** the sorted sub-directories. */
+    public final List<File> dirs;
+
+    /** the listings of the sub-directories, null if not listed. */
+    public final Listing[] children;
+
+    /**
+     * Initializes the listing.
+     *
+     * @param dirs	the sorted sub-directories
+     * @param children	the listings of the sub-directories, null if not listed
+     */
+    public Listing(List<File> dirs, Listing[] children) {
+      this.dirs     = dirs;
+      this.children = children;
+    }
+  }
+
+  /**
+   * Lists a directory and forks the listing of its sub-directories.
+   */
+  protected class ListingTask
+    extends RecursiveTask<Listing> {
+
+    /** for serialization. */
+    private static final long serialVersionUID = -3618830744738617493L;
+
+    /** the generation of the expansion. */
+    protected int m_ExpandGeneration;
+
+    /** the directory to list. */
+    protected File m_Directory;
+
+    /** the level of the sub-directories below the expanded node. */
+    protected int m_Depth;
+
+    /**
+     * Initializes the task.
+     *
+     * @param generation	the generation of the expansion
+     * @param dir	the directory to list
+     * @param depth	the level of the sub-directories below the expanded node
+     */
+    public ListingTask(int generation, File dir, int depth) {
+      m_ExpandGeneration = generation;
+      m_Directory        = dir;
+      m_Depth            = depth;
+    }
+
+    /**
+     * Lists the directory and its sub-directories.
+     *
+     * @return		the listing, null if cancelled or over the limit
+     */
+    @Override
+    protected Listing compute() {
+      List<File>	dirs;
+      ListingTask[]	tasks;
+      Listing[]		children;
+      int		i;
+
+      if ((m_ExpandGeneration != m_Generation) || (m_Count.get() >= m_CurrentMaxNodes))
+	return null;
+
+      try {
+	dirs = m_Scanner.scan(m_Directory, m_ShowHidden);
+	m_Sorter.sort(dirs);
+      }
+      catch (Exception e) {
+	System.err.println("Failed to list directory: " + m_Directory);
+	e.printStackTrace();
+	return null;
+      }
+      m_Count.addAndGet(dirs.size());
+      if (dirs.isEmpty() || (m_Depth >= m_CurrentMaxDepth))
+	return new Listing(dirs, null);
+
+      tasks = new ListingTask[dirs.size()];
+      for (i = 0; i < tasks.length; i++)
+	tasks[i] = new ListingTask(m_ExpandGeneration, dirs.get(i), m_Depth + 1);
+      invokeAll(tasks);
+      children = new Listing[tasks.length];
+      for (i = 0; i < tasks.length; i++)
+	children[i] = tasks[i].join();
+
+      return new Listing(dirs, children);
+    }
+  }
+
+  /**
+   * Initializes the listed nodes level by level on the event dispatch thread,
+   * rescheduling itself after each time slice. Each expansion fires events
+   * and adds rows to the layout, therefore only the levels that fit within
+   * the row limit get expanded; the nodes further down only get initialized,
+   * so that expanding them later on requires no more listing.
+   */
+  protected class Merge
+    implements Runnable {
+
+    /** the generation of the expansion. */
+    protected int m_ExpandGeneration;
+
+    /** the directory that got expanded. */
+    protected File m_Directory;
+
+    /** the nodes of the current level still to process. */
+    protected Deque<DirectoryNode> m_Nodes;
+
+    /** the corresponding listings. */
+    protected Deque<Listing> m_Listings;
+
+    /** the nodes of the next level. */
+    protected Deque<DirectoryNode> m_NextNodes;
+
+    /** the corresponding listings. */
+    protected Deque<Listing> m_NextListings;
+
+    /** whether the nodes of the current level get expanded. */
+    protected boolean m_Expand;
+
+    /** the number of rows the tree may grow to by expanding. */
+    protected int m_RowLimit;
+
+    /**
+     * Initializes the merge.
+     *
+     * @param generation	the generation of the expansion
+     * @param node	the node that got expanded
+     * @param listing	the listing of the node
+     */
+    public Merge(int generation, DirectoryNode node, Listing listing) {
+      m_ExpandGeneration = generation;
+      m_Directory        = node.getDirectory();
+      m_Nodes            = new ArrayDeque<>();
+      m_Listings         = new ArrayDeque<>();
+      m_NextNodes        = new ArrayDeque<>();
+      m_NextListings     = new ArrayDeque<>();
+      m_Expand           = true;
+      m_RowLimit         = m_Owner.getRowCount() + m_CurrentMaxRows;
+      m_Nodes.add(node);
+      m_Listings.add(listing);
+    }
+
+    /**
+     * Returns the child node for the listed sub-directory.
+     *
+     * @param node	the parent node
+     * @param listing	the listing of the parent
+     * @param index	the index of the sub-directory in the listing
+     * @return		the child node, null if not present
+     */
+    protected DirectoryNode getChild(DirectoryNode node, Listing listing, int index) {
+      String	name;
+
+      name = listing.dirs.get(index).getName();
+      // same position, if the node got initialized with the listing
+      if ((index < node.getDirectoryCount()) && (node.getChildAt(index) instanceof DirectoryNode)
+	&& ((DirectoryNode) node.getChildAt(index)).m_Name.equals(name))
+	return (DirectoryNode) node.getChildAt(index);
+      index = node.indexOfDirectory(name);
+      if (index == -1)
+	return null;
+      return (DirectoryNode) node.getChildAt(index);
+    }
+
+    /**
+     * Moves on to the next level. Its nodes only get expanded if the previous
+     * level got expanded and the rows of the whole level still fit within
+     * the limit.
+     */
+    protected void nextLevel() {
+      Deque<DirectoryNode>	nodes;
+      Deque<Listing>		listings;
+      int			rows;
+
+      nodes          = m_Nodes;
+      listings       = m_Listings;
+      m_Nodes        = m_NextNodes;
+      m_Listings     = m_NextListings;
+      m_NextNodes    = nodes;
+      m_NextListings = listings;
+
+      if (m_Expand) {
+	rows = m_Owner.getRowCount();
+	for (Listing listing: m_Listings)
+	  rows += listing.dirs.size();
+	m_Expand = (rows <= m_RowLimit);
+      }
+    }
+
+    /**
+     * Processes nodes until the time slice is used up. The children of a
+     * node get initialized before the node itself gets expanded, as
+     * structural changes of nodes that aren't visible are cheap.
+     */
+    @Override
+    public void run() {
+      long		end;
+      DirectoryNode	node;
+      DirectoryNode	child;
+      Listing		listing;
+      int		i;
+
+      if (m_ExpandGeneration != m_Generation)
+	return;
+
+      try {
+	end = System.currentTimeMillis() + MERGE_SLICE;
+	while ((!m_Nodes.isEmpty() || !m_NextNodes.isEmpty()) && (System.currentTimeMillis() < end)) {
+	  if (m_Nodes.isEmpty())
+	    nextLevel();
+	  node    = m_Nodes.poll();
+	  listing = m_Listings.poll();
+	  if (!node.isAttached())
+	    continue;
+	  node.initialize(listing.dirs);
+	  if (listing.children != null) {
+	    for (i = 0; i < listing.children.length; i++) {
+	      if (listing.children[i] == null)
+		continue;
+	      child = getChild(node, listing, i);
+	      if (child == null)
+		continue;
+	      child.initialize(listing.children[i].dirs);
+	      m_NextNodes.add(child);
+	      m_NextListings.add(listing.children[i]);
+	    }
+	  }
+	  if (m_Expand && (node.getDirectoryCount() > 0))
+	    m_Owner.expandPath(new TreePath(node.getPath()));
+	}
+      }
+      catch (Exception e) {
+	System.err.println("Failed to expand directory: " + m_Directory);
+	e.printStackTrace();
+	m_Nodes.clear();
+	m_NextNodes.clear();
+      }
+
+      if (m_Nodes.isEmpty() && m_NextNodes.isEmpty())
+	m_Running = false;
+      else
+	SwingUtilities.invokeLater(this);
+    }
+  }
+
+  /** the tree this expander belongs to. */
+  protected DirectoryTree m_Owner;
+
+  /** the maximum number of levels to expand. */
+  protected int m_MaxDepth;
+
+  /** the maximum number of directories to load. */
+  protected int m_MaxNodes;
+
+  /** the maximum number of rows to add to the tree by expanding. */
+  protected int m_MaxRows;
+
+  /** the number of threads for listing directories. */
+  protected int m_Parallelism;
+
+  /** the pool for listing the directories, null if not yet created. */
+  protected ForkJoinPool m_Pool;
+
+  /** the generation of the expansion, outdated work gets discarded. */
+  protected volatile int m_Generation;
+
+  /** whether an expansion is in progress. */
+  protected volatile boolean m_Running;
+
+  /** the number of listed directories of the current expansion. */
+  protected AtomicInteger m_Count;
+
+  /** the maximum depth of the current expansion. */
+  protected int m_CurrentMaxDepth;
+
+  /** the maximum number of directories of the current expansion. */
+  protected int m_CurrentMaxNodes;
+
+  /** the maximum number of rows of the current expansion. */
+  protected int m_CurrentMaxRows;
+
+  /** the scanner of the current expansion. */
+  protected DirectoryScanner m_Scanner;
+
+  /** the sorter of the current expansion. */
+  protected DirectorySorter m_Sorter;
+
+  /** whether to include hidden directories in the current expansion. */
+  protected boolean m_ShowHidden;
+
+  /**
+   * Initializes the expander.
+   *
+   * @param owner	the tree this expander belongs to
+   */
+  public SubtreeExpander(DirectoryTree owner) {
+    m_Owner       = owner;
+    m_MaxDepth    = DEFAULT_MAX_DEPTH;
+    m_MaxNodes    = DEFAULT_MAX_NODES;
+    m_MaxRows     = DEFAULT_MAX_ROWS;
+    m_Parallelism = DEFAULT_PARALLELISM;
+    m_Pool        = null;
+    m_Generation  = 0;
+    m_Running     = false;
+    m_Count       = new AtomicInteger();
+  }
+
+  /**
+   * Sets the maximum number of levels below the node to expand.
+   *
+   * @param value	the maximum depth (at least 1)
+   */
+  public void setMaxDepth(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Maximum depth must be at least 1: " + value);
+    m_MaxDepth = value;
+  }
+
+  /**
+   * Returns the maximum number of levels below the node to expand.
+   *
+   * @return		the maximum depth
+   */
+  public int getMaxDepth() {
+    return m_MaxDepth;
+  }
+
+  /**
+   * Sets the maximum number of directories to load when expanding.
+   *
+   * @param value	the maximum number
+   */
+  public void setMaxNodes(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Maximum number of nodes must be at least 1: " + value);
+    m_MaxNodes = value;
+  }
+
+  /**
+   * Returns the maximum number of directories to load when expanding.
+   *
+   * @return		the maximum number
+   */
+  public int getMaxNodes() {
+    return m_MaxNodes;
+  }
+
+  /**
+   * Sets the maximum number of rows that expanding may add to the tree.
+   * The levels below that get loaded, but stay collapsed.
+   *
+   * @param value	the maximum number
+   */
+  public void setMaxRows(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("Maximum number of rows must be at least 1: " + value);
+    m_MaxRows = value;
+  }
+
+  /**
+   * Returns the maximum number of rows that expanding may add to the tree.
+   *
+   * @return		the maximum number
+   */
+  public int getMaxRows() {
+    return m_MaxRows;
+  }
+
+  /**
+   * Sets the number of threads for listing the directories. Takes effect
+   * when the pool gets created, i.e., with the first expansion.
+   *
+   * @param value	the number of threads
+   */
+  public void setParallelism(int value) {
+    if (value < 1)
+      throw new IllegalArgumentException("At least one thread required: " + value);
+    m_Parallelism = value;
+  }
+
+  /**
+   * Returns the number of threads for listing the directories.
+   *
+   * @return		the number of threads
+   */
+  public int getParallelism() {
+    return m_Parallelism;
+  }
+
+  /**
+   * Returns the pool for listing the directories, creates it if necessary.
+   *
+   * @return		the pool
+   */
+  protected synchronized ForkJoinPool getPool() {
+    if (m_Pool == null)
+      m_Pool = new ForkJoinPool(m_Parallelism);
+    return m_Pool;
+  }
+
+  /**
+   * Expands all directories below the node, in the background. Cancels
+   * any expansion in progress. Must be called from the event dispatch thread.
+   *
+   * @param node	the node to expand
+   */
+  public void expand(DirectoryNode node) {
+    final int		generation;
+    final File		dir;
+    final ForkJoinPool	pool;
+
+    cancel();
+
+    generation        = m_Generation;
+    dir               = node.getDirectory();
+    pool              = getPool();
+    m_Running         = true;
+    m_Count.set(0);
+    m_CurrentMaxDepth = m_MaxDepth;
+    m_CurrentMaxNodes = m_MaxNodes;
+    m_CurrentMaxRows  = m_MaxRows;
+    m_Scanner         = m_Owner.getScanner();
+    m_Sorter          = m_Owner.getSorter();
+    m_ShowHidden      = m_Owner.getShowHidden();
+
+    pool.execute(() -> {
+      boolean merging = false;
+      try {
+	Listing listing = new ListingTask(generation, dir, 1).invoke();
+	if ((listing != null) && (generation == m_Generation)) {
+	  SwingUtilities.invokeLater(new Merge(generation, node, listing));
+	  merging = true;
+	}
+      }
+      catch (Exception e) {
+	System.err.println("Failed to expand directory: " + dir);
+	e.printStackTrace();
+      }
+      finally {
+	if (!merging && (generation == m_Generation))
+	  m_Running = false;
+      }
+    });
+  }
+
+  /**
+   * Cancels the expansion in progress, if any.
+   */
+  public void cancel() {
+    m_Generation++;
+    m_Running = false;
+  }
+
+  /**
+   * Returns whether an expansion is in progress.
+   *
+   * @return		true if in progress
+   */
+  public boolean isRunning() {
+    return m_Running;
+  }
+
+  /**
+   * Returns the number of directories that got listed by the last expansion.
+   *
+   * @return		the number of directories
+   */
+  public int getCount() {
+    return m_Count.get();
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * DirectoryTreeTest.java
+ * Copyright (C) 2026 University of Waikato, Hamilton, New Zealand
+ */
+
+package nz.ac.waikato.cms.adams.simpledirectorychooser.tree;
+
+import nz.ac.waikato.cms.adams.simpledirectorychooser.icons.IconManager;
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+import javax.swing.filechooser.FileSystemView;
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the coalescing of rebuilds in {@link DirectoryTree}.
+ *
+ * @author fracpete (fracpete at waikato dot ac dot nz)
+ */
+public class DirectoryTreeTest {
+
+  /**
+   * Delegates to the system's view and counts how often the roots get
+   * listed, i.e., how often the tree gets built.
+   */
+  public static class CountingFileSystemView
+    extends FileSystemView {
+
+    /** the view to delegate to. */
+    protected FileSystemView m_Base = FileSystemView.getFileSystemView();
+
+    /** the number of times the roots were listed. */
+    protected int m_Scans;
+
+    @Override
+    public File[] getRoots() {
+      m_Scans++;
+      return m_Base.getRoots();
+    }
+
+    @Override
+    public File createNewFolder(File containingDir) throws IOException {
+      return m_Base.createNewFolder(containingDir);
+    }
+
+    @Override
+    public boolean isFileSystemRoot(File dir) {
+      return m_Base.isFileSystemRoot(dir);
+    }
+
+    @Override
+    public boolean isDrive(File dir) {
+      return m_Base.isDrive(dir);
+    }
+
+    @Override
+    public String getSystemDisplayName(File f) {
+      return m_Base.getSystemDisplayName(f);
+    }
+
+    /**
+     * Returns the number of times the roots were listed.
+     *
+     * @return		the number of scans
+     */
+    public int getScans() {
+      return m_Scans;
+    }
+  }
+
+  /**
+   * Processes all pending events on the event dispatch thread.
+   *
+   * @throws Exception	if waiting fails
+   */
+  protected void flush() throws Exception {
+    SwingUtilities.invokeAndWait(() -> {});
+  }
+
+  /**
+   * Constructing and reconfiguring the tree within the same event cycle
+   * scans the file system exactly once.
+   *
+   * @throws Exception	if the test fails
+   */
+  @Test
+  public void testSettersCoalesce() throws Exception {
+    final CountingFileSystemView	view;
+    final DirectoryTree[]		tree;
+
+    view = new CountingFileSystemView();
+    tree = new DirectoryTree[1];
+    SwingUtilities.invokeAndWait(() -> {
+      tree[0] = new DirectoryTree(false, new IconManager(), view);
+      tree[0].setShowHidden(true);
+      tree[0].setIconManager(new IconManager());
+      tree[0].setShowHidden(false);
+      tree[0].setView(view);
+    });
+    flush();
+    flush();
+    assertEquals(1, view.getScans());
+
+    SwingUtilities.invokeAndWait(() -> {
+      tree[0].setShowHidden(true);
+      tree[0].setShowHidden(false);
+    });
+    flush();
+    assertEquals(2, view.getScans());
+  }
+
+  /**
+   * Setting the current directory directly after construction performs the
+   * pending rebuild immediately, without a second scan later on.
+   *
+   * @throws Exception	if the test fails
+   */
+  @Test
+  public void testCurrentDirectoryAfterConstruction() throws Exception {
+    final CountingFileSystemView	view;
+    final DirectoryTree[]		tree;
+    final File				home;
+
+    view = new CountingFileSystemView();
+    tree = new DirectoryTree[1];
+    home = new File(System.getProperty("user.home"));
+    SwingUtilities.invokeAndWait(() -> {
+      tree[0] = new DirectoryTree(false, new IconManager(), view);
+      tree[0].setCurrentDirectory(home);
+    });
+    flush();
+    assertEquals(1, view.getScans());
+    SwingUtilities.invokeAndWait(() -> assertEquals(home.getAbsoluteFile(), tree[0].getCurrentDirectory().getAbsoluteFile()));
+  }
+}